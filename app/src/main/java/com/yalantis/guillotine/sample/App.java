@@ -1,23 +1,37 @@
 package com.yalantis.guillotine.sample;
 
 import android.app.Application;
-import android.graphics.Typeface;
+import android.os.Trace;
+
+import com.yalantis.guillotine.sample.util.TypefaceCache;
 
 /**
  * Created by Dmytro Denysenko on 5/6/15.
  */
 public class App extends Application {
-    private static final String CANARO_EXTRA_BOLD_PATH = "fonts/canaro_extra_bold.otf";
-    public static Typeface canaroExtraBold;
+    public static final String CANARO_EXTRA_BOLD_PATH = "fonts/canaro_extra_bold.otf";
+    private static final String TRACE_ON_CREATE = "App.onCreate";
+    private static TypefaceCache typefaceCache;
 
     @Override
     public void onCreate() {
-        super.onCreate();
-        initTypeface();
+        //  Shows up as a section in systrace / Perfetto
+        Trace.beginSection(TRACE_ON_CREATE);
+        try {
+            super.onCreate();
+            initTypeface();
+        } finally {
+            Trace.endSection();
+        }
     }
 
-    private void initTypeface() {
-        canaroExtraBold = Typeface.createFromAsset(getAssets(), CANARO_EXTRA_BOLD_PATH);
+    public static TypefaceCache getTypefaceCache() {
+        return typefaceCache;
+    }
 
+    private void initTypeface() {
+        //  Parsed in the background, the first screen picks the font up as soon as it is ready
+        typefaceCache = new TypefaceCache(getAssets());
+        typefaceCache.preload(CANARO_EXTRA_BOLD_PATH);
     }
 }
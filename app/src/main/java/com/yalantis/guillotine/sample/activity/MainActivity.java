@@ -3,7 +3,6 @@ package com.yalantis.guillotine.sample.activity;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.FrameLayout;
 
@@ -17,7 +16,7 @@ import butterknife.BindView;
  * Created by Dmytro Denysenko on 5/4/15.
  */
 public class MainActivity extends AppCompatActivity {
-    private static final long RIPPLE_DURATION = 250;
+    private static final String KEY_GUILLOTINE_STATE = "guillotine_state";
 
 
     @BindView(R.id.toolbar)
@@ -27,6 +26,8 @@ public class MainActivity extends AppCompatActivity {
     @BindView(R.id.content_hamburger)
     View contentHamburger;
 
+    private GuillotineAnimation guillotineAnimation;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -39,13 +40,19 @@ public class MainActivity extends AppCompatActivity {
             getSupportActionBar().setTitle(null);
         }
 
-        View guillotineMenu = LayoutInflater.from(this).inflate(R.layout.guillotine, null);
-        root.addView(guillotineMenu);
-
-        new GuillotineAnimation.GuillotineBuilder(guillotineMenu, guillotineMenu.findViewById(R.id.guillotine_hamburger), contentHamburger)
-                .setStartDelay(RIPPLE_DURATION)
+        guillotineAnimation = new GuillotineAnimation.GuillotineBuilder(root, R.layout.guillotine, R.id.guillotine_hamburger, contentHamburger)
                 .setActionBarViewForAnimation(toolbar)
-                .setClosedOnStart(true)
+                .setPrewarmWhenIdle(true)
+                .setReleaseOnDestroy(this)
                 .build();
+        if (savedInstanceState != null) {
+            guillotineAnimation.onRestoreInstanceState(savedInstanceState.getParcelable(KEY_GUILLOTINE_STATE));
+        }
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putParcelable(KEY_GUILLOTINE_STATE, guillotineAnimation.onSaveInstanceState());
     }
 }
@@ -0,0 +1,94 @@
+package com.yalantis.guillotine.sample.util;
+
+import android.content.res.AssetManager;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parses typefaces from the assets on a background thread and keeps the last few of them, keyed by asset path.
+ * <p>
+ * Callers ask for a typeface on the main thread and get it right away when it is cached. Otherwise they get it
+ * once it has been parsed, all waiting callers in the same main thread message, so that the text views it is
+ * applied to are laid out again in a single pass.
+ */
+public class TypefaceCache {
+    private static final String TAG = "TypefaceCache";
+    private static final int MAX_SIZE = 4;
+
+    public interface Callback {
+        /**
+         * @param typeface the parsed typeface, or null if the asset could not be parsed
+         */
+        void onTypefaceLoaded(Typeface typeface);
+    }
+
+    private final AssetManager mAssets;
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, Typeface> mTypefaces = new LruCache<>(MAX_SIZE);
+    private final HashMap<String, ArrayList<Callback>> mPendingCallbacks = new HashMap<>();
+
+    public TypefaceCache(AssetManager assets) {
+        this.mAssets = assets;
+    }
+
+    /**
+     * Starts parsing the typeface in the background, if it is neither cached nor already being parsed.
+     * Must be called on the main thread.
+     */
+    public void preload(final String path) {
+        if (mTypefaces.get(path) != null || mPendingCallbacks.containsKey(path)) return;
+        mPendingCallbacks.put(path, new ArrayList<Callback>());
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Typeface parsed;
+                try {
+                    parsed = Typeface.createFromAsset(mAssets, path);
+                } catch (RuntimeException e) {
+                    //  A missing or broken asset; the next request tries again
+                    Log.w(TAG, "Could not load typeface " + path, e);
+                    parsed = null;
+                }
+                final Typeface typeface = parsed;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver(path, typeface);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Hands the typeface over to the callback, synchronously when it is cached. Must be called on the main thread.
+     */
+    public void get(String path, Callback callback) {
+        Typeface typeface = mTypefaces.get(path);
+        if (typeface != null) {
+            callback.onTypefaceLoaded(typeface);
+            return;
+        }
+        preload(path);
+        mPendingCallbacks.get(path).add(callback);
+    }
+
+    private void deliver(String path, Typeface typeface) {
+        if (typeface != null) {
+            mTypefaces.put(path, typeface);
+        }
+        ArrayList<Callback> callbacks = mPendingCallbacks.remove(path);
+        for (int i = 0; i < callbacks.size(); i++) {
+            callbacks.get(i).onTypefaceLoaded(typeface);
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.yalantis.guillotine.sample.widget;
 
 import android.content.Context;
+import android.graphics.Typeface;
 import android.util.AttributeSet;
 import android.widget.TextView;
 
 import com.yalantis.guillotine.sample.App;
+import com.yalantis.guillotine.sample.util.TypefaceCache;
 
 /**
  * Created by Dmytro Denysenko on 5/6/15.
  */
-public class CanaroTextView extends TextView {
+public class CanaroTextView extends TextView implements TypefaceCache.Callback {
     public CanaroTextView(Context context) {
         this(context, null);
     }
@@ -20,7 +22,16 @@ public class CanaroTextView extends TextView {
 
     public CanaroTextView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        setTypeface(App.canaroExtraBold);
+        if (!isInEditMode()) {
+            App.getTypefaceCache().get(App.CANARO_EXTRA_BOLD_PATH, this);
+        }
     }
 
+    @Override
+    public void onTypefaceLoaded(Typeface typeface) {
+        //  Keeps the default typeface if the font could not be loaded
+        if (typeface != null) {
+            setTypeface(typeface);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.animation.AnimationUtils;
+
+/**
+ * Time source shared by the physics driver and the metrics recorder. It reads the same clock as the
+ * framework animators, so a paused or virtual animation clock drives every part of the guillotine alike.
+ */
+final class AnimationClock {
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private AnimationClock() {
+    }
+
+    static long nanoTime() {
+        return AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MILLI;
+    }
+}
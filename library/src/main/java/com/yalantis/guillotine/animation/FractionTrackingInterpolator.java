@@ -0,0 +1,36 @@
+package com.yalantis.guillotine.animation;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * Delegates to another interpolator and remembers the last elapsed fraction it was asked for,
+ * which tells the update listener when an animator reached its end.
+ */
+class FractionTrackingInterpolator implements TimeInterpolator {
+    private TimeInterpolator mInterpolator;
+    private float mLastInput;
+
+    FractionTrackingInterpolator(TimeInterpolator interpolator) {
+        this.mInterpolator = interpolator;
+    }
+
+    /**
+     * Swaps the delegate. Only called at rest, a running animator would jump.
+     */
+    void setInterpolator(TimeInterpolator interpolator) {
+        this.mInterpolator = interpolator;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        mLastInput = input;
+        return mInterpolator.getInterpolation(input);
+    }
+
+    /**
+     * @return the elapsed (not interpolated) fraction of the most recent frame
+     */
+    float getLastInput() {
+        return mLastInput;
+    }
+}
@@ -0,0 +1,82 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+import com.yalantis.guillotine.interfaces.GuillotineMetricsListener;
+
+/**
+ * Watches {@link Choreographer} frames while the guillotine moves and fills a single, reused
+ * {@link GuillotineMetrics}, so measuring does not allocate per frame or per animation.
+ */
+class FrameMetricsRecorder implements Choreographer.FrameCallback {
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+    private final GuillotineMetricsListener mListener;
+    private final View mView;
+    private final GuillotineMetrics mMetrics = new GuillotineMetrics();
+
+    private boolean isRecording;
+    private long mStartTimeNanos;
+    private long mLastFrameTimeNanos;
+
+    FrameMetricsRecorder(GuillotineMetricsListener listener, View view) {
+        this.mListener = listener;
+        this.mView = view;
+    }
+
+    /**
+     * Starts measuring a new animation. A measurement still in progress is reported as interrupted.
+     *
+     * @param requestTimeNanos {@link AnimationClock} time the animation was asked for, the latency is counted from it
+     */
+    void start(boolean isOpening, long requestTimeNanos) {
+        stop(true);
+        isRecording = true;
+        mMetrics.reset(isOpening, getFrameIntervalNanos());
+        mStartTimeNanos = requestTimeNanos;
+        mLastFrameTimeNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void stop(boolean isInterrupted) {
+        if (!isRecording) return;
+        isRecording = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        mMetrics.isInterrupted = isInterrupted;
+        mMetrics.mDurationNanos = AnimationClock.nanoTime() - mStartTimeNanos;
+        mListener.onGuillotineMetrics(mMetrics);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!isRecording) return;
+        GuillotineMetrics metrics = mMetrics;
+        if (mLastFrameTimeNanos == 0) {
+            metrics.mFirstFrameLatencyNanos = Math.max(0, frameTimeNanos - mStartTimeNanos);
+        } else {
+            long interval = frameTimeNanos - mLastFrameTimeNanos;
+            int bucket = (int) Math.min(interval / 1000000L / GuillotineMetrics.HISTOGRAM_BUCKET_MS, GuillotineMetrics.HISTOGRAM_BUCKET_COUNT - 1);
+            metrics.mHistogram[bucket]++;
+            metrics.mMaxFrameIntervalNanos = Math.max(metrics.mMaxFrameIntervalNanos, interval);
+            long frameInterval = metrics.mFrameIntervalNanos;
+            long missedVsyncs = (interval + frameInterval / 2) / frameInterval - 1;
+            if (missedVsyncs > 0) {
+                metrics.mDroppedFrameCount += missedVsyncs;
+            }
+            if (interval * 2 > frameInterval * 3) {
+                metrics.mJankyFrameCount++;
+            }
+        }
+        metrics.mFrameCount++;
+        mLastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private long getFrameIntervalNanos() {
+        Display display = mView.getDisplay();
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        return refreshRate >= 1f ? (long) (1e9 / refreshRate) : DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+}
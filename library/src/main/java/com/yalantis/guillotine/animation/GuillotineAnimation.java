@@ -1,270 +1,1200 @@
 package com.yalantis.guillotine.animation;
 
 import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.animation.TimeInterpolator;
-import android.content.res.Resources;
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Paint;
 import android.os.Handler;
-import android.support.v7.widget.AppCompatTextView;
-import android.util.DisplayMetrics;
-import android.view.MotionEvent;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.VisibleForTesting;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
+import android.view.ViewStub;
+import android.view.ViewPropertyAnimator;
 import android.view.ViewTreeObserver;
-import android.widget.FrameLayout;
-import android.widget.LinearLayout;
-import android.widget.RelativeLayout;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.widget.TextView;
 
+import java.util.ArrayList;
+
+import com.yalantis.guillotine.interfaces.GuillotineCommandCallback;
 import com.yalantis.guillotine.interfaces.GuillotineListener;
+import com.yalantis.guillotine.interfaces.GuillotineMetricsListener;
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+import com.yalantis.guillotine.interfaces.GuillotineQualityListener;
+import com.yalantis.guillotine.interfaces.GuillotineViewFactory;
+import com.yalantis.guillotine.util.BitmapPool;
 import com.yalantis.guillotine.util.GuillotineInterpolator;
+import com.yalantis.guillotine.util.GuillotineTrace;
+import com.yalantis.guillotine.util.LookupTableInterpolator;
+import com.yalantis.guillotine.util.PhysicsSimulation;
+import com.yalantis.guillotine.util.QualityTierSelector;
 
 /**
  * Created by Dmytro Denysenko on 5/6/15.
  *
  */
 public class GuillotineAnimation {
-    private static final String ROTATION = "rotation";
+    /**
+     * The live guillotine view is rotated by the animators, as is.
+     */
+    public static final int RENDER_MODE_DEFAULT = 0;
+    /**
+     * The guillotine view is put on a hardware layer while it moves, so frames only recompose the layer.
+     */
+    public static final int RENDER_MODE_HARDWARE_LAYER = 1;
+    /**
+     * Like {@link #RENDER_MODE_HARDWARE_LAYER}, but the animations are handed over to {@link android.view.ViewPropertyAnimator}
+     * without any listener, which lets the framework run them on the RenderThread where it can. The start and
+     * the end are picked up by frame callbacks posted for the same times.
+     * Progress listeners and item choreography need an update listener, which keeps the animation on the UI thread.
+     * The action bar title is not carried over onto the guillotine, it would have to be faded out frame by frame.
+     * Ignored when a physics simulation drives the rotation.
+     */
+    public static final int RENDER_MODE_VIEW_PROPERTY_ANIMATOR = 2;
+    /**
+     * The guillotine is rendered once into a pooled bitmap, and that bitmap is rotated instead of the live view.
+     * The bitmap is kept between animations and only drawn again after the menu is laid out again or
+     * {@link #invalidateSnapshot()} is called. It goes back to the pool when the screen is detached or
+     * the system asks to trim memory while the guillotine is at rest.
+     * Drags cannot catch the guillotine on the menu itself while it moves, and the action bar title is not
+     * carried over onto the guillotine. See {@link GuillotineBuilder#setSnapshotScale(float)} and
+     * {@link GuillotineBuilder#setSnapshotConfig(Bitmap.Config)} for low-RAM devices.
+     */
+    public static final int RENDER_MODE_SNAPSHOT = 3;
+
     private static final float GUILLOTINE_CLOSED_ANGLE = -90f;
     private static final float GUILLOTINE_OPENED_ANGLE = 0f;
     //private static final int DEFAULT_DURATION = 625;
     //private static final float ACTION_BAR_ROTATION_ANGLE = 3f;
-    private static final int MIN_GESTURE_DISTANCE = 50;
+    private static final int MIN_SETTLE_DURATION = 80;
     private static final int DURATION_OPENING = 425;
     private static final int DURATION_CLOSING = 590 /*290*/;
 
-    private final View mGuillotineView;
-    //private final long mDuration;
-    private final ObjectAnimator mOpeningAnimation;
-    private final ObjectAnimator mClosingAnimation;
+    private static final int STATE_CLOSED = 0;
+    private static final int STATE_OPENING = 1;
+    private static final int STATE_OPENED = 2;
+    private static final int STATE_CLOSING = 3;
+    private static final int STATE_DRAGGING = 4;
+
+    private static final String TRACE_PIVOTS = "Guillotine#resolvePivots";
+    private static final String TRACE_TITLE = "Guillotine#showTitle";
+    private static final String TRACE_START = "Guillotine#start";
+    private static final String TRACE_FRAME = "Guillotine#frame";
+    private static final String TRACE_FINISH = "Guillotine#finish";
+    private static final String COUNTER_ROTATION = "Guillotine rotation";
+    private static final String COUNTER_STATE = "Guillotine state";
+
+    //  Stateless, so a single instance serves every guillotine
+    private static final TimeInterpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    private final GuillotineViewFactory mGuillotineViewFactory;
+    private final int mClosingViewId;
+    private final long mOpeningDuration;
+    private final long mClosingDuration;
+    private final long mOpeningDelay;
+    private final long mClosingDelay;
+    private final ValueAnimator mOpeningAnimation;
+    private final ValueAnimator mClosingAnimation;
+    private final PhysicsRotationDriver mPhysicsDriver;
+    private final FrameMetricsRecorder mMetricsRecorder;
+    private final GuillotineMetricsListener mMetricsListener;
+    private final QualityTierSelector mQualitySelector;
+    private final GuillotineQualityListener mQualityListener;
+    private final GuillotineCoordinator mCoordinator;
+    private final BitmapPool mBitmapPool;
+    private final float mSnapshotScale;
+    private final Bitmap.Config mSnapshotConfig;
+    private final boolean isPrewarmedWhenIdle;
     private final GuillotineListener mListener;
-    private final TimeInterpolator mInterpolator;
     private final View mActionBarView;
-    private final long mDelay;
+    private final int mRenderMode;
+    private final ArrayList<GuillotineProgressListener> mProgressListeners;
+    private final int mItemContainerId;
+    private final float mItemStaggerOffset;
 
-    private boolean isMoving;
-    private boolean isClosed;
+    private View mGuillotineView;
+    private View mClosingView;
+    private View mOpeningView;
+    private boolean isReleased;
+    private GuillotineSnapshot mSnapshot;
+    private ItemChoreographer mItemChoreographer;
+    private int mState;
+    private int mQualityTier = QualityTierSelector.TIER_FULL;
+    private float mFromRotation;
+    private float mToRotation;
+    private boolean isOnHardwareLayer;
+    private int mSavedLayerType;
 
     private TextView titleTextViewOnActionBar;
+    private final TitleDrawable mTitleDrawable = new TitleDrawable();
+    private boolean isTitleShownOnGuillotine;
+    private int[] mActionBarChildVisibilities = new int[0];
+    private int mHiddenActionBarChildCount = -1;
 
-    private GuillotineAnimation(GuillotineBuilder builder) {
-        this.mActionBarView = builder.actionBarView;
-        //  Add view behind action bar
-        ViewParent parent = this.mActionBarView.getParent();
-        View backgroundView = new View(this.mActionBarView.getContext());
-        backgroundView.setBackground(this.mActionBarView.getBackground());
-        ViewGroup.LayoutParams viewParams = new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 70);
-        backgroundView.setLayoutParams(viewParams);
-        if (parent instanceof LinearLayout) {
-            ViewParent grandparentView = parent.getParent();
-            if (grandparentView instanceof FrameLayout) {
-                ((FrameLayout) grandparentView).addView(backgroundView, 0);
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final ArrayList<GuillotineCommandCallback> mOpenCallbacks = new ArrayList<>();
+    private final ArrayList<GuillotineCommandCallback> mCloseCallbacks = new ArrayList<>();
+    private boolean isOpenRequested;
+    //  A tap on the opening or the closing view is input, like a drag, so it does not wait for the start delay
+    private boolean isRequestedByClick;
+    private boolean isCommandPending;
+    private boolean isCommandWaitingForDrag;
+    //  Taken in open() and close(), so that the metrics include the hop to the posted command
+    private long mRequestTimeNanos;
+    private final Runnable mCommandRunnable = new Runnable() {
+        @Override
+        public void run() {
+            runCommand();
+        }
+    };
+
+    private final RotationUpdateListener mOpeningUpdateListener;
+    private final RotationUpdateListener mClosingUpdateListener;
+    private final Paint mLayerPaint = new Paint();
+
+    //  Only used by RENDER_MODE_VIEW_PROPERTY_ANIMATOR, the rotation animators report through their update listeners.
+    //  Setting it keeps the animation on the UI thread, so it is only set when someone needs the frames
+    private final ValueAnimator.AnimatorUpdateListener mViewPropertyUpdateListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            dispatchProgress(getRotation());
+        }
+    };
+
+    //  RENDER_MODE_VIEW_PROPERTY_ANIMATOR finds out about the start and the end of the animation from frame callbacks
+    //  posted for the same times: an animator listener would keep the animation off the RenderThread
+    private final Runnable mViewPropertyStartRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (mState == STATE_OPENING) onOpeningStarted();
+            else if (mState == STATE_CLOSING) onClosingStarted();
+        }
+    };
+
+    private final Runnable mViewPropertyEndRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (mState != STATE_OPENING && mState != STATE_CLOSING) return;
+            //  The RenderThread may still be drawing the last frame, the view gets its final value right away
+            mGuillotineView.animate().cancel();
+            applyRotation(mToRotation);
+            onOpeningFinished();
+            onClosingFinished();
+        }
+    };
+
+    //  Feeds the quality selector before handing the metrics over to the app
+    private final GuillotineMetricsListener mRecorderListener = new GuillotineMetricsListener() {
+        @Override
+        public void onGuillotineMetrics(GuillotineMetrics metrics) {
+            if (mQualitySelector != null && !metrics.isInterrupted()) {
+                int tier = mQualitySelector.onAnimationMeasured(metrics.getFrameCount(), metrics.getDroppedFrameCount());
+                if (tier != mQualityTier) {
+                    setQualityTier(tier);
+                }
+            }
+            if (mMetricsListener != null) {
+                mMetricsListener.onGuillotineMetrics(metrics);
             }
         }
+    };
 
+    private GuillotineAnimation(GuillotineBuilder builder) {
+        this.mActionBarView = builder.actionBarView;
         this.mListener = builder.guillotineListener;
-        this.mGuillotineView = builder.guillotineView;
-        //this.mDuration = builder.duration > 0 ? builder.duration : DEFAULT_DURATION;
-        this.mDelay = builder.startDelay;
-        this.mInterpolator = builder.interpolator == null ? new GuillotineInterpolator() : builder.interpolator;
+        this.mGuillotineViewFactory = builder.guillotineViewFactory;
+        this.mClosingViewId = builder.closingViewId;
+        this.mOpeningDuration = builder.openingDuration;
+        this.mClosingDuration = builder.closingDuration;
+        this.mOpeningDelay = builder.openingStartDelay;
+        this.mClosingDelay = builder.closingStartDelay;
+        this.mRenderMode = builder.renderMode;
+        this.mOpeningUpdateListener = new RotationUpdateListener(true, resolveInterpolator(builder.openingInterpolator));
+        this.mClosingUpdateListener = new RotationUpdateListener(false, resolveInterpolator(builder.closingInterpolator));
+        this.mBitmapPool = builder.bitmapPool == null ? BitmapPool.getDefault(builder.actionBarView.getContext()) : builder.bitmapPool;
+        this.mSnapshotScale = builder.snapshotScale;
+        this.mSnapshotConfig = builder.snapshotConfig;
+        this.isPrewarmedWhenIdle = builder.isPrewarmedWhenIdle;
+        this.mProgressListeners = new ArrayList<>(builder.progressListeners);
+        this.mItemContainerId = builder.itemContainerId;
+        this.mItemStaggerOffset = builder.itemStaggerOffset;
         setUpOpeningView(builder.openingView);
-        setUpClosingView(builder.closingView);
         this.mOpeningAnimation = buildOpeningAnimation();
         this.mClosingAnimation = buildClosingAnimation();
-        isMoving = false;
-        if (builder.isClosedOnStart) {
-            isClosed = true;
-            mGuillotineView.setRotation(GUILLOTINE_CLOSED_ANGLE);
-            mGuillotineView.setVisibility(View.INVISIBLE);
+        this.mPhysicsDriver = builder.physicsSimulation == null ? null : new PhysicsRotationDriver(this, builder.physicsSimulation);
+        this.mMetricsListener = builder.metricsListener;
+        this.mQualitySelector = builder.qualitySelector;
+        this.mQualityListener = builder.qualityListener;
+        this.mMetricsRecorder = mMetricsListener == null && mQualitySelector == null ? null : new FrameMetricsRecorder(mRecorderListener, mActionBarView);
+        if (mQualitySelector != null) {
+            mQualityTier = mQualitySelector.getTier();
+            mOpeningUpdateListener.setQualityTier(mQualityTier);
+            mClosingUpdateListener.setQualityTier(mQualityTier);
+        }
+        if (builder.guillotineView != null) {
+            mState = builder.isClosedOnStart ? STATE_CLOSED : STATE_OPENED;
+            setUpGuillotineView(builder.guillotineView, builder.closingView);
+        } else {
+            //  A guillotine that is created on demand always starts closed
+            setState(STATE_CLOSED);
+        }
+        if (isPrewarmedWhenIdle || (builder.isInflatedWhenIdle && mGuillotineView == null)) {
+            runWhenIdle();
         }
 
         //  Add events for gestures
-        this.mActionBarView.setOnTouchListener(new View.OnTouchListener() {
-            private float y1,y2;
-            @Override
-            public boolean onTouch(View view, MotionEvent motionEvent) {
-                switch(motionEvent.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                        y1 = motionEvent.getY();
-                        return true;
-                    case MotionEvent.ACTION_UP:
-                        y2 = motionEvent.getY();
-                        float deltaX = y1 - y2;
-                        if (Math.abs(deltaX) > MIN_GESTURE_DISTANCE) {
-                            open();
-                        }
-                        break;
-                }
-                return false;
+        this.mActionBarView.setOnTouchListener(new GuillotineDragHelper(this, mActionBarView.getContext(), true));
+
+        this.mCoordinator = builder.coordinator;
+        if (mActionBarView.isAttachedToWindow()) {
+            mAttachStateListener.onViewAttachedToWindow(mActionBarView);
+        }
+        mActionBarView.addOnAttachStateChangeListener(mAttachStateListener);
+    }
+
+    /**
+     * Keeps the guillotine registered with the coordinator, and the snapshot with the memory trim callbacks,
+     * only while its screen is attached. A detached guillotine is put at the rest it was heading to, so that
+     * no running animator, frame callback or snapshot bitmap outlives the screen.
+     */
+    private final View.OnAttachStateChangeListener mAttachStateListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            if (mCoordinator != null) {
+                mCoordinator.register(GuillotineAnimation.this);
             }
-        });
+            if (mRenderMode == RENDER_MODE_SNAPSHOT) {
+                mActionBarView.getContext().getApplicationContext().registerComponentCallbacks(mTrimMemoryCallbacks);
+            }
+        }
 
-        this.mGuillotineView.setOnTouchListener(new View.OnTouchListener() {
-            private float x1,x2;
-            @Override
-            public boolean onTouch(View view, MotionEvent motionEvent) {
-                switch(motionEvent.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                        x1 = motionEvent.getX();
-                        return true;
-                    case MotionEvent.ACTION_UP:
-                        if (x1 < 70) {
-                            x2 = motionEvent.getX();
-                            float deltaX = x2 - x1;
-                            if (Math.abs(deltaX) > MIN_GESTURE_DISTANCE) {
-                                close();
-                            }
-                        }
-                        break;
-                }
-                return false;
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            if (mCoordinator != null) {
+                mCoordinator.unregister(GuillotineAnimation.this);
             }
-        });
+            if (mRenderMode == RENDER_MODE_SNAPSHOT) {
+                mActionBarView.getContext().getApplicationContext().unregisterComponentCallbacks(mTrimMemoryCallbacks);
+            }
+            if (isReleased) return;
+            //  A request that has not run yet is applied at once, it would otherwise animate a detached screen
+            boolean isOpened = isCommandPending || isCommandWaitingForDrag ? isOpenRequested : isHeadingOpened();
+            cancelCommand();
+            //  The screen is going away, the other guillotines are left as they are
+            jumpTo(isOpened, false);
+            completeCommandsAtRest(isOpened);
+            //  A detached screen gives the bitmap back, the snapshot is drawn again if the screen comes back
+            if (mSnapshot != null) {
+                mSnapshot.recycle();
+            }
+        }
+    };
+
+    //  The snapshot bitmap is kept between animations, until the system runs low on memory or the app is hidden
+    private final ComponentCallbacks2 mTrimMemoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                trimSnapshot();
+            }
+        }
+
+        @Override
+        public void onLowMemory() {
+            trimSnapshot();
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+    };
+
+    private void trimSnapshot() {
+        //  A moving guillotine is drawn from the bitmap, it is dropped once the guillotine is at rest
+        if (mSnapshot == null || isReleased || (mState != STATE_CLOSED && mState != STATE_OPENED)) return;
+        mSnapshot.recycle();
+        mBitmapPool.clear();
+    }
+
+    private static TimeInterpolator resolveInterpolator(TimeInterpolator interpolator) {
+        return interpolator == null ? DEFAULT_INTERPOLATOR : LookupTableInterpolator.wrap(interpolator);
+    }
+
+    private void setUpGuillotineView(View guillotineView, View closingView) {
+        this.mGuillotineView = guillotineView;
+        if (mState == STATE_CLOSED) {
+            setViewRotation(GUILLOTINE_CLOSED_ANGLE);
+            mGuillotineView.setVisibility(View.INVISIBLE);
+        }
+        setUpClosingView(closingView);
+        if (mRenderMode == RENDER_MODE_SNAPSHOT) {
+            mSnapshot = new GuillotineSnapshot(mGuillotineView, mBitmapPool, mSnapshotScale, mSnapshotConfig);
+        } else if (mItemContainerId != View.NO_ID) {
+            View itemContainer = mGuillotineView.findViewById(mItemContainerId);
+            if (itemContainer instanceof ViewGroup) {
+                mItemChoreographer = new ItemChoreographer((ViewGroup) itemContainer, mItemStaggerOffset);
+            }
+        }
+        mGuillotineView.setOnTouchListener(new GuillotineDragHelper(this, mGuillotineView.getContext(), false));
+    }
+
+    /**
+     * Creates the guillotine view through the factory, if it has not been created yet.
+     */
+    private void ensureGuillotineView() {
+        if (mGuillotineView == null) {
+            View guillotineView = mGuillotineViewFactory.createGuillotineView();
+            setUpGuillotineView(guillotineView, guillotineView.findViewById(mClosingViewId));
+        }
+    }
+
+    /**
+     * Does everything the first opening would otherwise pay for, while the guillotine is still closed:
+     * creates the view if needed, measures and lays it out, resolves the pivots and builds the render
+     * cache of the current render mode, if it has one (the snapshot, or the hardware layer that is
+     * then kept until the end of the first animation).
+     * Does nothing if the guillotine is not closed.
+     */
+    public void prewarm() {
+        if (mState != STATE_CLOSED || isReleased) return;
+        ensureGuillotineView();
+        if (!layOutGuillotineView()) return;
+        resolvePivots();
+        if (mSnapshot != null) {
+            mSnapshot.prepare();
+        } else if (isMovedOnHardwareLayer() && mGuillotineView.isAttachedToWindow()) {
+            promoteToHardwareLayer();
+            mGuillotineView.buildLayer();
+        }
+    }
+
+    /**
+     * Lays out a guillotine view that has not been through a layout pass yet, with its parent's size.
+     *
+     * @return false if neither the view nor its parent has a size yet
+     */
+    private boolean layOutGuillotineView() {
+        if (mGuillotineView.isLaidOut() && !mGuillotineView.isLayoutRequested()) return true;
+        View parent = (View) mGuillotineView.getParent();
+        if (parent == null || parent.getWidth() == 0 || parent.getHeight() == 0) return false;
+        ViewGroup.LayoutParams params = mGuillotineView.getLayoutParams();
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(parent.getWidth(), View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(parent.getHeight(), View.MeasureSpec.EXACTLY);
+        mGuillotineView.measure(ViewGroup.getChildMeasureSpec(widthSpec, 0, params.width),
+                ViewGroup.getChildMeasureSpec(heightSpec, 0, params.height));
+        mGuillotineView.layout(0, 0, mGuillotineView.getMeasuredWidth(), mGuillotineView.getMeasuredHeight());
+        return true;
+    }
+
+    /**
+     * Creates or pre-warms the guillotine once the message queue goes idle after the first frame of the screen.
+     */
+    private void runWhenIdle() {
+        mActionBarView.getViewTreeObserver().addOnPreDrawListener(mFirstDrawListener);
+    }
+
+    private final ViewTreeObserver.OnPreDrawListener mFirstDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            mActionBarView.getViewTreeObserver().removeOnPreDrawListener(this);
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+            return true;
+        }
+    };
+
+    private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            if (isPrewarmedWhenIdle) {
+                prewarm();
+            } else {
+                ensureGuillotineView();
+            }
+            return false;
+        }
+    };
+
+    View getGuillotineView() {
+        return mGuillotineView;
     }
 
+    /**
+     * Opens the guillotine. If the guillotine is closing at the moment, the closing animation
+     * is reversed from the current angle instead of waiting for it to finish.
+     *
+     * @see #open(GuillotineCommandCallback)
+     */
     public void open() {
-        if (!isMoving) {
-            isMoving = true;
+        open(null);
+    }
+
+    /**
+     * Closes the guillotine. If the guillotine is opening at the moment, the opening animation
+     * is reversed from the current angle instead of waiting for it to finish.
+     *
+     * @see #close(GuillotineCommandCallback)
+     */
+    public void close() {
+        close(null);
+    }
+
+    /**
+     * Requests the guillotine to open. Requests are run once the current message has been handled,
+     * so a burst of {@code open()} and {@code close()} calls only moves the guillotine towards the last
+     * requested state, and nothing moves if it is already there.
+     *
+     * @param callback told when the guillotine is opened, or that a later request won. May be null
+     */
+    public void open(GuillotineCommandCallback callback) {
+        request(true, false, callback);
+    }
+
+    /**
+     * Requests the guillotine to close, see {@link #open(GuillotineCommandCallback)}.
+     *
+     * @param callback told when the guillotine is closed, or that a later request won. May be null
+     */
+    public void close(GuillotineCommandCallback callback) {
+        request(false, false, callback);
+    }
+
+    private void request(boolean isOpen, boolean isClicked, GuillotineCommandCallback callback) {
+        if (isReleased) {
+            if (callback != null) {
+                callback.onGuillotineCommandCompleted(false);
+            }
+            return;
+        }
+        if (callback != null) {
+            (isOpen ? mOpenCallbacks : mCloseCallbacks).add(callback);
+        }
+        isOpenRequested = isOpen;
+        isRequestedByClick = isClicked;
+        mRequestTimeNanos = AnimationClock.nanoTime();
+        postCommand();
+    }
+
+    private void runCommand() {
+        isCommandPending = false;
+        //  The requests for the other state were coalesced away
+        completeCommands(!isOpenRequested, false);
+        if (mState == STATE_DRAGGING) {
+            //  The finger keeps the guillotine, the request runs once it lets go, see finishDrag()
+            isCommandWaitingForDrag = true;
+            return;
+        }
+        if (isOpenRequested) {
+            if (mState == STATE_OPENED) {
+                completeCommands(true, true);
+            } else if (mState == STATE_CLOSED || mState == STATE_CLOSING) {
+                ensureGuillotineView();
+                //  A reversal does not stop the guillotine in mid-air for the start delay
+                long delay = mState == STATE_CLOSED && !isRequestedByClick ? mOpeningDelay : 0;
+                startOpening(scaleDuration(mOpeningDuration, GUILLOTINE_OPENED_ANGLE), delay, getPhysicsVelocity(), mRequestTimeNanos);
+            }
+        } else {
+            if (mState == STATE_CLOSED) {
+                completeCommands(false, true);
+            } else if (mState == STATE_OPENED || mState == STATE_OPENING) {
+                long delay = mState == STATE_OPENED && !isRequestedByClick ? mClosingDelay : 0;
+                startClosing(scaleDuration(mClosingDuration, GUILLOTINE_CLOSED_ANGLE), delay, getPhysicsVelocity(), mRequestTimeNanos);
+            }
+        }
+    }
+
+    private void postCommand() {
+        if (!isCommandPending) {
+            isCommandPending = true;
+            mHandler.post(mCommandRunnable);
+        }
+    }
+
+    private void cancelCommand() {
+        mHandler.removeCallbacks(mCommandRunnable);
+        isCommandPending = false;
+        isCommandWaitingForDrag = false;
+    }
+
+    /**
+     * Answers the requests once the guillotine came to rest. Requests for the other state fail,
+     * unless they are about to be run.
+     */
+    private void completeCommandsAtRest(boolean isOpened) {
+        completeCommands(isOpened, true);
+        if (!isCommandPending) {
+            completeCommands(!isOpened, false);
+        }
+    }
+
+    private void completeCommands(boolean isOpen, boolean isApplied) {
+        ArrayList<GuillotineCommandCallback> callbacks = isOpen ? mOpenCallbacks : mCloseCallbacks;
+        //  A callback may request again, its request is appended after the ones answered here
+        int count = callbacks.size();
+        if (count == 0) return;
+        for (int i = 0; i < count; i++) {
+            callbacks.get(i).onGuillotineCommandCompleted(isApplied);
+        }
+        if (callbacks.size() == count) {
+            callbacks.clear();
+        } else {
+            //  Removed one by one, a sublist view would be allocated on every answer
+            for (int i = count - 1; i >= 0; i--) {
+                callbacks.remove(i);
+            }
+        }
+    }
+
+    /**
+     * @return the resting state to pass to {@link #onRestoreInstanceState(Parcelable)} once the screen is
+     * recreated. A moving guillotine is saved as the state it is heading to
+     */
+    public Parcelable onSaveInstanceState() {
+        return new SavedState(isHeadingOpened());
+    }
+
+    private boolean isHeadingOpened() {
+        return mState == STATE_OPENED || mState == STATE_OPENING
+                || (mState == STATE_DRAGGING && getRotation() > (GUILLOTINE_OPENED_ANGLE + GUILLOTINE_CLOSED_ANGLE) / 2);
+    }
+
+    /**
+     * Puts the guillotine straight into the saved resting state, without running any animation.
+     * The guillotine listener is told as if it had opened or closed. Call it right after {@link GuillotineBuilder#build()}.
+     */
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState) || isReleased) return;
+        jumpTo(((SavedState) state).isOpened, true);
+    }
+
+    /**
+     * Ends any motion and puts the guillotine at rest, opened or closed, without animation.
+     *
+     * @param isCoordinated whether opening closes the other guillotines of the coordinator
+     */
+    private void jumpTo(boolean isOpened, boolean isCoordinated) {
+        if (isOpened) {
+            if (mState == STATE_OPENED) return;
+            ensureGuillotineView();
+            //  Only one guillotine may be open, as if it had been opened by hand
+            if (isCoordinated && mCoordinator != null) {
+                mCoordinator.onGuillotineMoving(this);
+            }
+            setState(STATE_OPENING);
+            cancelMotion();
+            applyRotation(GUILLOTINE_OPENED_ANGLE);
+            mGuillotineView.setVisibility(View.VISIBLE);
+            onOpeningFinished();
+        } else {
+            if (mState == STATE_CLOSED) return;
+            setState(STATE_CLOSING);
+            cancelMotion();
+            applyRotation(GUILLOTINE_CLOSED_ANGLE);
+            onClosingFinished();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isClosed() {
+        return mState == STATE_CLOSED || mState == STATE_OPENING;
+    }
+
+    /**
+     * Scales the full-swing duration down to the distance left between the current angle and the target.
+     */
+    private long scaleDuration(long fullDuration, float targetRotation) {
+        float distance = Math.abs(targetRotation - getRotation());
+        float fullDistance = Math.abs(GUILLOTINE_OPENED_ANGLE - GUILLOTINE_CLOSED_ANGLE);
+        return (long) (fullDuration * Math.min(1f, distance / fullDistance));
+    }
+
+    /**
+     * @param delay    start delay of the animators, 0 for anything driven by touch
+     * @param velocity initial angular velocity, only used by the physics simulation
+     * @param requestTimeNanos {@link AnimationClock} time of the call or the touch that asked for the animation
+     */
+    private void startOpening(long duration, long delay, float velocity, long requestTimeNanos) {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_START);
+        try {
+            if (mCoordinator != null) {
+                mCoordinator.onGuillotineMoving(this);
+            }
+            boolean isReversing = mState == STATE_CLOSING;
+            setState(STATE_OPENING);
+            if (isReversing) {
+                mClosingAnimation.cancel();
+            }
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.start(true, requestTimeNanos);
+            }
             if (mListener != null)
                 mListener.onGuillotineWillOpen();
-            addTitleActionBarToGuillotineView();
-            mOpeningAnimation.start();
+            showTitleOnGuillotine();
+            if (mPhysicsDriver != null) {
+                onOpeningStarted();
+                mPhysicsDriver.start(getRotation(), velocity, GUILLOTINE_OPENED_ANGLE);
+            } else {
+                startRotation(true, GUILLOTINE_OPENED_ANGLE, duration, delay);
+            }
+        } finally {
+            GuillotineTrace.endSection(isTraced);
         }
     }
 
-    public void close() {
-        if (!isMoving) {
-            isMoving = true;
+    /**
+     * @param delay    start delay of the animators, 0 for anything driven by touch
+     * @param velocity initial angular velocity, only used by the physics simulation
+     * @param requestTimeNanos {@link AnimationClock} time of the call or the touch that asked for the animation
+     */
+    private void startClosing(long duration, long delay, float velocity, long requestTimeNanos) {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_START);
+        try {
+            boolean isReversing = mState == STATE_OPENING;
+            setState(STATE_CLOSING);
+            if (isReversing) {
+                mOpeningAnimation.cancel();
+            }
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.start(false, requestTimeNanos);
+            }
             if (mListener != null)
                 mListener.onGuillotineWillClose();
-            if (titleTextViewOnActionBar != null)
-                titleTextViewOnActionBar.animate().setDuration(DURATION_CLOSING).alpha(1).start();
-            mClosingAnimation.start();
+            showTitleOnGuillotine();
+            if (mPhysicsDriver != null) {
+                onClosingStarted();
+                mPhysicsDriver.start(getRotation(), velocity, GUILLOTINE_CLOSED_ANGLE);
+            } else {
+                startRotation(false, GUILLOTINE_CLOSED_ANGLE, duration, delay);
+            }
+        } finally {
+            GuillotineTrace.endSection(isTraced);
         }
     }
 
-    @SuppressWarnings("unused")
-    public boolean isClosed() {
-        return isClosed;
+    private float getPhysicsVelocity() {
+        return mPhysicsDriver != null ? mPhysicsDriver.getVelocity() : 0;
+    }
+
+    void onPhysicsSettled() {
+        onOpeningFinished();
+        onClosingFinished();
+    }
+
+    boolean canStartDrag(boolean isOpeningGesture) {
+        if (isReleased) return false;
+        return isOpeningGesture ? mState != STATE_OPENED : mState != STATE_CLOSED;
+    }
+
+    /**
+     * Takes the guillotine over from any running animation so that it follows the finger.
+     */
+    void startDrag() {
+        ensureGuillotineView();
+        //  A guillotine inflated on demand has not been laid out yet, but the drag reads its pivot right away
+        if (!mGuillotineView.isLaidOut() && layOutGuillotineView()) {
+            resolvePivots();
+        }
+        if (mCoordinator != null) {
+            mCoordinator.onGuillotineMoving(this);
+        }
+        int previousState = mState;
+        setState(STATE_DRAGGING);
+        cancelMotion();
+        promoteToHardwareLayer();
+        showTitleOnGuillotine();
+        if (previousState == STATE_CLOSED) {
+            showMovingGuillotine();
+        }
+        showActionBarBackgroundOnly();
+    }
+
+    private void setState(int state) {
+        mState = state;
+        GuillotineTrace.setCounter(COUNTER_STATE, state);
+    }
+
+    /**
+     * Stops whatever moves the guillotine. The state must have been switched before, so that
+     * the finish callbacks of the cancelled animations are ignored.
+     */
+    private void cancelMotion() {
+        mOpeningAnimation.cancel();
+        mClosingAnimation.cancel();
+        if (mRenderMode == RENDER_MODE_VIEW_PROPERTY_ANIMATOR && mGuillotineView != null) {
+            mGuillotineView.animate().cancel();
+            mGuillotineView.removeCallbacks(mViewPropertyStartRunnable);
+            mGuillotineView.removeCallbacks(mViewPropertyEndRunnable);
+        }
+        if (mPhysicsDriver != null) {
+            mPhysicsDriver.cancel();
+        }
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.stop(true);
+        }
+    }
+
+    /**
+     * Closes the guillotine at once, without animation. Used by the coordinator when another guillotine starts moving.
+     */
+    void snapClosed() {
+        //  A request to open fails, one to close is answered as applied
+        cancelCommand();
+        if (mState == STATE_CLOSED) {
+            completeCommandsAtRest(false);
+            return;
+        }
+        boolean wasClosing = mState == STATE_CLOSING;
+        setState(STATE_CLOSING);
+        cancelMotion();
+        if (!wasClosing && mListener != null)
+            mListener.onGuillotineWillClose();
+        applyRotation(GUILLOTINE_CLOSED_ANGLE);
+        onClosingFinished();
+    }
+
+    /**
+     * Stops the guillotine for good and detaches it from every view it was set up on, so that nothing
+     * keeps the screen reachable: animations and pending frame and idle callbacks are cancelled, the touch,
+     * click, layout and attach listeners are removed, the action bar is shown again and the snapshot bitmap
+     * goes back to the pool. Pending open and close requests are answered as not applied.
+     * The guillotine stays where it is. Nothing happens on later calls.
+     *
+     * @see GuillotineBuilder#setReleaseOnDestroy(Activity)
+     */
+    public void release() {
+        if (isReleased) return;
+        isReleased = true;
+        //  Any state that is not moving makes the finish callbacks of the cancelled animations no-ops
+        setState(mState == STATE_OPENED || mState == STATE_OPENING ? STATE_OPENED : STATE_CLOSED);
+        cancelMotion();
+        cancelCommand();
+        completeCommands(true, false);
+        completeCommands(false, false);
+        mOpeningAnimation.removeAllUpdateListeners();
+        mClosingAnimation.removeAllUpdateListeners();
+        mProgressListeners.clear();
+        Looper.myQueue().removeIdleHandler(mIdleHandler);
+
+        mActionBarView.getViewTreeObserver().removeOnPreDrawListener(mFirstDrawListener);
+        mActionBarView.getViewTreeObserver().removeOnGlobalLayoutListener(mActionBarLayoutListener);
+        mActionBarView.setOnTouchListener(null);
+        restoreActionBarContent();
+        mActionBarView.setVisibility(View.VISIBLE);
+        mActionBarView.setAlpha(1);
+        mOpeningView.setOnClickListener(null);
+        mActionBarView.removeOnAttachStateChangeListener(mAttachStateListener);
+        if (mCoordinator != null) {
+            mCoordinator.unregister(this);
+        }
+        if (mRenderMode == RENDER_MODE_SNAPSHOT) {
+            mActionBarView.getContext().getApplicationContext().unregisterComponentCallbacks(mTrimMemoryCallbacks);
+        }
+
+        if (mGuillotineView != null) {
+            mGuillotineView.getViewTreeObserver().removeOnGlobalLayoutListener(mGuillotineLayoutListener);
+            mGuillotineView.setOnTouchListener(null);
+            mClosingView.setOnClickListener(null);
+            hideTitleOnGuillotine();
+            restoreLayerType();
+            if (mItemChoreographer != null) {
+                mItemChoreographer.reset();
+            }
+            if (mSnapshot != null) {
+                if (mSnapshot.isShown()) {
+                    mGuillotineView.setVisibility(View.VISIBLE);
+                }
+                mSnapshot.release();
+            }
+        }
+    }
+
+    void dragTo(float rotation) {
+        if (mState != STATE_DRAGGING) return;
+        applyRotation(Math.max(GUILLOTINE_CLOSED_ANGLE, Math.min(GUILLOTINE_OPENED_ANGLE, rotation)));
+    }
+
+    /**
+     * Single entry point for every frame of every driver: animators, drags and physics.
+     */
+    void applyRotation(float rotation) {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_FRAME);
+        try {
+            GuillotineTrace.setCounter(COUNTER_ROTATION, Math.round(rotation));
+            setViewRotation(rotation);
+            if (isTitleShownOnGuillotine) {
+                updateTitle(rotation);
+            }
+            if (mSnapshot != null) {
+                mSnapshot.setRotation(rotation);
+            }
+            dispatchProgress(rotation);
+        } finally {
+            GuillotineTrace.endSection(isTraced);
+        }
+    }
+
+    /**
+     * In {@link QualityTierSelector#TIER_CROSS_FADE} the rotation is shown as the alpha of the opened guillotine.
+     */
+    private void setViewRotation(float rotation) {
+        if (mQualityTier == QualityTierSelector.TIER_CROSS_FADE) {
+            mGuillotineView.setRotation(GUILLOTINE_OPENED_ANGLE);
+            mGuillotineView.setAlpha(Math.max(0f, Math.min(1f, toProgress(rotation))));
+        } else {
+            mGuillotineView.setRotation(rotation);
+        }
+    }
+
+    /**
+     * @return the angle the guillotine is at, whatever the quality tier shows it as
+     */
+    float getRotation() {
+        if (mQualityTier == QualityTierSelector.TIER_CROSS_FADE) {
+            return GUILLOTINE_CLOSED_ANGLE + mGuillotineView.getAlpha() * (GUILLOTINE_OPENED_ANGLE - GUILLOTINE_CLOSED_ANGLE);
+        }
+        return mGuillotineView.getRotation();
+    }
+
+    private static float toProgress(float rotation) {
+        return (rotation - GUILLOTINE_CLOSED_ANGLE) / (GUILLOTINE_OPENED_ANGLE - GUILLOTINE_CLOSED_ANGLE);
+    }
+
+    /**
+     * @return the current {@link QualityTierSelector} tier, {@link QualityTierSelector#TIER_FULL} unless
+     * the adaptive quality mode stepped down
+     */
+    public int getQualityTier() {
+        return mQualityTier;
+    }
+
+    /**
+     * Only called at rest, between two animations.
+     */
+    private void setQualityTier(int tier) {
+        if (mGuillotineView != null) {
+            float rotation = getRotation();
+            mQualityTier = tier;
+            mGuillotineView.setAlpha(1f);
+            setViewRotation(rotation);
+        } else {
+            mQualityTier = tier;
+        }
+        mOpeningUpdateListener.setQualityTier(tier);
+        mClosingUpdateListener.setQualityTier(tier);
+        if (mQualityListener != null) {
+            mQualityListener.onGuillotineQualityTierChanged(tier);
+        }
+    }
+
+    private void dispatchProgress(float rotation) {
+        float progress = toProgress(rotation);
+        if (mItemChoreographer != null && mQualityTier == QualityTierSelector.TIER_FULL) {
+            mItemChoreographer.update(progress);
+        }
+        //  Indexed loop, an iterator would be allocated on every frame
+        for (int i = 0; i < mProgressListeners.size(); i++) {
+            mProgressListeners.get(i).onGuillotineProgress(progress, rotation);
+        }
+    }
+
+    /**
+     * Registers a listener that is called on every frame of the guillotine movement.
+     */
+    public void addProgressListener(GuillotineProgressListener listener) {
+        if (!mProgressListeners.contains(listener)) {
+            mProgressListeners.add(listener);
+        }
+    }
+
+    public void removeProgressListener(GuillotineProgressListener listener) {
+        mProgressListeners.remove(listener);
+    }
+
+    /**
+     * Marks the kept snapshot as out of date, so that the next animation draws a new one.
+     * Only needed in {@link #RENDER_MODE_SNAPSHOT} when the menu content changes in between without a new
+     * layout, for example a color or an image swap.
+     */
+    public void invalidateSnapshot() {
+        if (mSnapshot != null) {
+            mSnapshot.invalidate();
+        }
+    }
+
+    private void showMovingGuillotine() {
+        if (mSnapshot != null && mQualityTier != QualityTierSelector.TIER_CROSS_FADE && mSnapshot.show()) {
+            mGuillotineView.setVisibility(View.INVISIBLE);
+        } else {
+            mGuillotineView.setVisibility(View.VISIBLE);
+        }
+    }
+
+    /**
+     * Settles the guillotine after a drag. A fling faster than {@code minFlingVelocity} decides the
+     * direction and the settle duration, otherwise the guillotine goes to the nearest resting angle.
+     *
+     * @param velocity angular velocity at release, in degrees per second (positive means opening)
+     */
+    void finishDrag(float velocity, float minFlingVelocity) {
+        if (mState != STATE_DRAGGING) return;
+        float rotation = getRotation();
+        boolean isFling = Math.abs(velocity) > minFlingVelocity;
+        boolean shouldOpen = isFling
+                ? velocity > 0
+                : rotation > (GUILLOTINE_OPENED_ANGLE + GUILLOTINE_CLOSED_ANGLE) / 2;
+        float target = shouldOpen ? GUILLOTINE_OPENED_ANGLE : GUILLOTINE_CLOSED_ANGLE;
+        long duration = scaleDuration(shouldOpen ? mOpeningDuration : mClosingDuration, target);
+        if (isFling) {
+            long flingDuration = (long) (Math.abs(target - rotation) / Math.abs(velocity) * 1000);
+            duration = Math.max(Math.min(flingDuration, duration), Math.min(MIN_SETTLE_DURATION, duration));
+        }
+        //  Input-driven, so the guillotine settles on the next frame without the start delay
+        if (shouldOpen) {
+            startOpening(duration, 0, velocity, AnimationClock.nanoTime());
+        } else {
+            startClosing(duration, 0, velocity, AnimationClock.nanoTime());
+        }
+        //  A request made during the drag takes over from the settle, reversing it if it has to
+        if (isCommandWaitingForDrag) {
+            isCommandWaitingForDrag = false;
+            postCommand();
+        }
+    }
+
+    private void startRotation(boolean isOpening, float targetRotation, long duration, long delay) {
+        if (mRenderMode == RENDER_MODE_VIEW_PROPERTY_ANIMATOR) {
+            //  Starting a new rotation cancels the one in the other direction, if any
+            ViewPropertyAnimator animator = mGuillotineView.animate();
+            if (delay == 0) {
+                //  The animator moves the view on its first frame, before the posted start runnable runs
+                promoteToHardwareLayer();
+            }
+            if (mQualityTier == QualityTierSelector.TIER_CROSS_FADE) {
+                animator.alpha(toProgress(targetRotation));
+            } else {
+                animator.rotation(targetRotation);
+            }
+            animator.setDuration(duration)
+                    .setStartDelay(delay)
+                    .setInterpolator((isOpening ? mOpeningUpdateListener : mClosingUpdateListener).mInterpolator)
+                    .setUpdateListener(mProgressListeners.isEmpty() && mItemChoreographer == null ? null : mViewPropertyUpdateListener)
+                    .start();
+            mToRotation = targetRotation;
+            mGuillotineView.removeCallbacks(mViewPropertyStartRunnable);
+            mGuillotineView.removeCallbacks(mViewPropertyEndRunnable);
+            mGuillotineView.postOnAnimationDelayed(mViewPropertyStartRunnable, delay);
+            mGuillotineView.postOnAnimationDelayed(mViewPropertyEndRunnable, delay + duration);
+            return;
+        }
+        ValueAnimator animator = isOpening ? mOpeningAnimation : mClosingAnimation;
+        (isOpening ? mOpeningUpdateListener : mClosingUpdateListener).reset();
+        mFromRotation = getRotation();
+        mToRotation = targetRotation;
+        animator.setDuration(duration);
+        animator.setStartDelay(delay);
+        animator.start();
+    }
+
+    private boolean isMovedOnHardwareLayer() {
+        //  A fading view is always put on a layer, otherwise every frame would go through an offscreen buffer
+        return (mRenderMode != RENDER_MODE_DEFAULT && mRenderMode != RENDER_MODE_SNAPSHOT)
+                || mQualityTier == QualityTierSelector.TIER_CROSS_FADE;
+    }
+
+    private void promoteToHardwareLayer() {
+        if (isOnHardwareLayer || !isMovedOnHardwareLayer()) return;
+        isOnHardwareLayer = true;
+        mSavedLayerType = mGuillotineView.getLayerType();
+        mGuillotineView.setLayerType(View.LAYER_TYPE_HARDWARE, mLayerPaint);
+    }
+
+    private void restoreLayerType() {
+        if (!isOnHardwareLayer) return;
+        isOnHardwareLayer = false;
+        mGuillotineView.setLayerType(mSavedLayerType, mSavedLayerType == View.LAYER_TYPE_NONE ? null : mLayerPaint);
     }
 
     private void setUpOpeningView(final View openingView) {
+        mOpeningView = openingView;
         if (mActionBarView != null) {
-            mActionBarView.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-                @Override
-                public void onGlobalLayout() {
-                    mActionBarView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
-                    mActionBarView.setPivotX(calculatePivotX(openingView));
-                    mActionBarView.setPivotY(calculatePivotY(openingView));
-                }
-            });
+            mActionBarView.getViewTreeObserver().addOnGlobalLayoutListener(mActionBarLayoutListener);
         }
         openingView.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                open();
+                request(true, true, null);
             }
         });
     }
 
     private void setUpClosingView(final View closingView) {
-        mGuillotineView.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            public void onGlobalLayout() {
-                mGuillotineView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
-                mGuillotineView.setPivotX(calculatePivotX(closingView));
-                mGuillotineView.setPivotY(calculatePivotY(closingView));
-            }
-        });
+        mClosingView = closingView;
+        mGuillotineView.getViewTreeObserver().addOnGlobalLayoutListener(mGuillotineLayoutListener);
 
         closingView.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                close();
+                request(false, true, null);
             }
         });
     }
 
-    private ObjectAnimator buildOpeningAnimation() {
-        ObjectAnimator rotationAnimator = initAnimator(ObjectAnimator.ofFloat(mGuillotineView, ROTATION, GUILLOTINE_CLOSED_ANGLE, GUILLOTINE_OPENED_ANGLE));
-        //rotationAnimator.setInterpolator(mInterpolator);
-        //rotationAnimator.setDuration(mDuration);
-        rotationAnimator.setDuration(DURATION_OPENING);
-        rotationAnimator.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                mGuillotineView.setVisibility(View.VISIBLE);
-                mActionBarView.setVisibility(View.INVISIBLE);
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                if (mListener != null)
-                    mListener.onGuillotineOpened();
-                isClosed = false;
-                new Handler().postDelayed(new Runnable() {
-                    @Override
-                    public void run() {
-                        isMoving = false;
-                    }
-                }, 100);
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
+    private final ViewTreeObserver.OnGlobalLayoutListener mActionBarLayoutListener = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            mActionBarView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
+            mActionBarView.setPivotX(calculatePivotX(mOpeningView));
+            mActionBarView.setPivotY(calculatePivotY(mOpeningView));
+        }
+    };
 
-            @Override
-            public void onAnimationRepeat(Animator animation) {
+    private final ViewTreeObserver.OnGlobalLayoutListener mGuillotineLayoutListener = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            mGuillotineView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
+            resolvePivots();
+        }
+    };
 
-            }
-        });
+    private ValueAnimator buildOpeningAnimation() {
+        ValueAnimator rotationAnimator = initAnimator(ValueAnimator.ofFloat(0f, 1f), mOpeningUpdateListener);
+        rotationAnimator.setDuration(mOpeningDuration);
         return rotationAnimator;
     }
 
-    private ObjectAnimator buildClosingAnimation() {
-        ObjectAnimator rotationAnimator = initAnimator(ObjectAnimator.ofFloat(mGuillotineView, ROTATION, GUILLOTINE_OPENED_ANGLE, GUILLOTINE_CLOSED_ANGLE));
-        //rotationAnimator.setDuration((long) (mDuration * GuillotineInterpolator.ROTATION_TIME));
-        rotationAnimator.setDuration(DURATION_CLOSING);
-        rotationAnimator.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                mGuillotineView.setVisibility(View.VISIBLE);
-            }
+    private ValueAnimator buildClosingAnimation() {
+        ValueAnimator rotationAnimator = initAnimator(ValueAnimator.ofFloat(0f, 1f), mClosingUpdateListener);
+        rotationAnimator.setDuration(mClosingDuration);
+        return rotationAnimator;
+    }
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                mActionBarView.setVisibility(View.VISIBLE);
-                mActionBarView.setAlpha(1);
-                mGuillotineView.setVisibility(View.GONE);
-                removeTitleActionBarFromGuillotineView();
-                //startActionBarAnimation();
+    private void onOpeningStarted() {
+        promoteToHardwareLayer();
+        showMovingGuillotine();
+        //  The fading guillotine brings its own toolbar in over the action bar
+        if (mQualityTier != QualityTierSelector.TIER_CROSS_FADE) {
+            showActionBarBackgroundOnly();
+        }
+    }
 
-                isClosed = true;
-                if (mListener != null) {
-                    mListener.onGuillotineClosed();
+    private void onOpeningFinished() {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_FINISH);
+        try {
+            // A reversal has already switched the state and owns the guillotine now
+            if (mState != STATE_OPENING) return;
+            setState(STATE_OPENED);
+            //  Covered by the opened guillotine, so not drawn at all
+            mActionBarView.setVisibility(View.INVISIBLE);
+            restoreActionBarContent();
+            restoreLayerType();
+            hideTitleOnGuillotine();
+            if (mItemChoreographer != null) {
+                mItemChoreographer.reset();
+            }
+            if (mSnapshot != null) {
+                if (mSnapshot.isShown()) {
+                    mGuillotineView.setVisibility(View.VISIBLE);
                 }
-                new Handler().postDelayed(new Runnable() {
-                    @Override
-                    public void run() {
-                        isMoving = false;
-                    }
-                }, 100);
+                //  Keeps the bitmap, the next closing draws it without going through the menu again
+                mSnapshot.hide();
             }
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.stop(false);
+            }
+            if (mListener != null)
+                mListener.onGuillotineOpened();
+            completeCommandsAtRest(true);
+        } finally {
+            GuillotineTrace.endSection(isTraced);
+        }
+    }
 
-            @Override
-            public void onAnimationCancel(Animator animation) {
+    private void onClosingStarted() {
+        promoteToHardwareLayer();
+        showMovingGuillotine();
+        if (mQualityTier == QualityTierSelector.TIER_CROSS_FADE) {
+            mActionBarView.setVisibility(View.VISIBLE);
+        } else {
+            showActionBarBackgroundOnly();
+        }
+    }
 
-            }
+    /**
+     * While the guillotine moves, the action bar keeps drawing its own background into the gap the rotation
+     * uncovers at the top of the screen, only its children are hidden. Nothing is added to the hierarchy
+     * and nothing extra is drawn once the guillotine is at rest.
+     */
+    private void showActionBarBackgroundOnly() {
+        mActionBarView.setVisibility(View.VISIBLE);
+        if (mHiddenActionBarChildCount >= 0 || !(mActionBarView instanceof ViewGroup)) return;
+        ViewGroup actionBar = (ViewGroup) mActionBarView;
+        int childCount = actionBar.getChildCount();
+        if (mActionBarChildVisibilities.length < childCount) {
+            mActionBarChildVisibilities = new int[childCount];
+        }
+        for (int i = 0; i < childCount; i++) {
+            View child = actionBar.getChildAt(i);
+            mActionBarChildVisibilities[i] = child.getVisibility();
+            child.setVisibility(View.INVISIBLE);
+        }
+        mHiddenActionBarChildCount = childCount;
+    }
 
-            @Override
-            public void onAnimationRepeat(Animator animation) {
+    private void restoreActionBarContent() {
+        if (mHiddenActionBarChildCount < 0) return;
+        ViewGroup actionBar = (ViewGroup) mActionBarView;
+        int childCount = Math.min(mHiddenActionBarChildCount, actionBar.getChildCount());
+        for (int i = 0; i < childCount; i++) {
+            actionBar.getChildAt(i).setVisibility(mActionBarChildVisibilities[i]);
+        }
+        mHiddenActionBarChildCount = -1;
+    }
 
+    private void onClosingFinished() {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_FINISH);
+        try {
+            // A reversal has already switched the state and owns the guillotine now
+            if (mState != STATE_CLOSING) return;
+            restoreActionBarContent();
+            mActionBarView.setVisibility(View.VISIBLE);
+            mActionBarView.setAlpha(1);
+            if (mSnapshot != null) {
+                //  Stay laid out, so that the next opening can draw the snapshot right away
+                mSnapshot.hide();
+                mGuillotineView.setVisibility(View.INVISIBLE);
+            } else {
+                mGuillotineView.setVisibility(View.GONE);
             }
-        });
-        return rotationAnimator;
+            restoreLayerType();
+            hideTitleOnGuillotine();
+            if (mItemChoreographer != null) {
+                mItemChoreographer.reset();
+            }
+            //startActionBarAnimation();
+
+            setState(STATE_CLOSED);
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.stop(false);
+            }
+            if (mListener != null) {
+                mListener.onGuillotineClosed();
+            }
+            completeCommandsAtRest(false);
+        } finally {
+            GuillotineTrace.endSection(isTraced);
+        }
     }
 
     /*private void startActionBarAnimation() {
@@ -274,64 +1204,152 @@ public class GuillotineAnimation {
         actionBarAnimation.start();
     }*/
 
-    private ObjectAnimator initAnimator(ObjectAnimator animator) {
-        //animator.setStartDelay(mDelay);
+    private ValueAnimator initAnimator(ValueAnimator animator, RotationUpdateListener updateListener) {
+        animator.setInterpolator(updateListener.mInterpolator);
+        animator.addUpdateListener(updateListener);
         return animator;
     }
 
-    private void addTitleActionBarToGuillotineView() {
-        if (mActionBarView instanceof android.support.v7.widget.Toolbar) {
-            android.support.v7.widget.Toolbar toolbar = (android.support.v7.widget.Toolbar) mActionBarView;
-            for (int i = 0; i < toolbar.getChildCount(); i++) {
-                View v = toolbar.getChildAt(i);
-                if (v instanceof TextView || v instanceof AppCompatTextView) {
-                    titleTextViewOnActionBar = (TextView) v;
-                    float yPosition = titleTextViewOnActionBar.getY();
-                    float marginBottom = ((titleTextViewOnActionBar.getWidth() - titleTextViewOnActionBar.getHeight()) / 2) - yPosition;
+    /**
+     * Moves the guillotine on every frame of a rotation animator and reports the start and the end of the
+     * animation. They are detected here instead of through an {@link Animator.AnimatorListener}, because
+     * ValueAnimator copies its listener list on every start, end and cancel, so an opening and closing
+     * cycle would never be free of allocations.
+     */
+    private final class RotationUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+        private final boolean isOpening;
+        private final FractionTrackingInterpolator mInterpolator;
+        private boolean isStarted;
 
-                    ((android.support.v7.widget.Toolbar) mActionBarView).removeView(titleTextViewOnActionBar);
-                    ((RelativeLayout) mGuillotineView).addView(titleTextViewOnActionBar);
+        private final TimeInterpolator mConfiguredInterpolator;
 
-                    DisplayMetrics metrics = Resources.getSystem().getDisplayMetrics();
-                    int width = metrics.widthPixels;
-                    int center = width/2;
-                    int position = center - this.titleTextViewOnActionBar.getWidth()/2;
+        RotationUpdateListener(boolean isOpening, TimeInterpolator interpolator) {
+            this.isOpening = isOpening;
+            this.mConfiguredInterpolator = interpolator;
+            this.mInterpolator = new FractionTrackingInterpolator(interpolator);
+        }
 
-                    titleTextViewOnActionBar.setTranslationX(-marginBottom);
-                    titleTextViewOnActionBar.setY(position + (this.titleTextViewOnActionBar.getWidth() - this.titleTextViewOnActionBar.getHeight())/2);
-                    titleTextViewOnActionBar.setRotation(90);
-                }
+        /**
+         * Below {@link QualityTierSelector#TIER_FULL} the configured interpolator, a bounce for example,
+         * is replaced by the plain default one.
+         */
+        void setQualityTier(int tier) {
+            mInterpolator.setInterpolator(tier == QualityTierSelector.TIER_FULL ? mConfiguredInterpolator : DEFAULT_INTERPOLATOR);
+        }
+
+        void reset() {
+            isStarted = false;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            //  Ignores priming, and animators that have been taken over by a reversal or a drag
+            if (mState != (isOpening ? STATE_OPENING : STATE_CLOSING)) return;
+            if (!isStarted) {
+                isStarted = true;
+                if (isOpening) onOpeningStarted();
+                else onClosingStarted();
+            }
+            applyRotation(mFromRotation + (mToRotation - mFromRotation) * animation.getAnimatedFraction());
+            if (mInterpolator.getLastInput() >= 1f) {
+                if (isOpening) onOpeningFinished();
+                else onClosingFinished();
             }
         }
-        if (titleTextViewOnActionBar != null)
-            titleTextViewOnActionBar.animate().setDuration(DURATION_OPENING).alpha(0).start();
     }
 
-    private void removeTitleActionBarFromGuillotineView() {
-        if (titleTextViewOnActionBar != null) {
-            titleTextViewOnActionBar.setRotation(0);
+    /**
+     * Shows the action bar title on the guillotine, turned so that it lines up with the action bar
+     * while the guillotine is closed. It is drawn in the overlay of the guillotine's parent, no view is moved.
+     */
+    private void showTitleOnGuillotine() {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_TITLE);
+        try {
+            //  A snapshot would freeze the title at whatever alpha it had when it was taken, and
+            //  RENDER_MODE_VIEW_PROPERTY_ANIMATOR has no frame callback to fade it out with
+            if (isTitleShownOnGuillotine || mSnapshot != null || mRenderMode == RENDER_MODE_VIEW_PROPERTY_ANIMATOR
+                    || mQualityTier != QualityTierSelector.TIER_FULL || findActionBarTitle() == null) return;
+            isTitleShownOnGuillotine = true;
+            ViewGroup parent = (ViewGroup) mGuillotineView.getParent();
+            mTitleDrawable.setTitle(titleTextViewOnActionBar);
+            mTitleDrawable.setBounds(0, 0, parent.getWidth(), parent.getHeight());
+            updateTitlePosition();
+            updateTitle(getRotation());
+            parent.getOverlay().add(mTitleDrawable);
+        } finally {
+            GuillotineTrace.endSection(isTraced);
+        }
+    }
 
-            android.support.v7.widget.Toolbar myToolbar = (android.support.v7.widget.Toolbar) mActionBarView;
+    /**
+     * The title turns with the guillotine and fades out as it opens.
+     */
+    private void updateTitle(float rotation) {
+        float progress = toProgress(rotation);
+        mTitleDrawable.setRotation(rotation);
+        mTitleDrawable.setAlpha(Math.round(255 * Math.max(0f, Math.min(1f, 1f - progress))));
+    }
 
-            float leftMargin = 0;
-            for (int j = 0; j < myToolbar.getChildCount(); j++) {
-                View v2 = ((android.support.v7.widget.Toolbar) mActionBarView).getChildAt(j);
-                leftMargin += v2.getWidth();
-            }
-            ((RelativeLayout) mGuillotineView).removeView(titleTextViewOnActionBar);
-            ((android.support.v7.widget.Toolbar) mActionBarView).addView(titleTextViewOnActionBar);
+    private void hideTitleOnGuillotine() {
+        if (!isTitleShownOnGuillotine) return;
+        isTitleShownOnGuillotine = false;
+        ((ViewGroup) mGuillotineView.getParent()).getOverlay().remove(mTitleDrawable);
+    }
 
-            DisplayMetrics metrics = Resources.getSystem().getDisplayMetrics();
-            int width = metrics.widthPixels;
+    @VisibleForTesting
+    TitleDrawable getTitleDrawable() {
+        return isTitleShownOnGuillotine ? mTitleDrawable : null;
+    }
+
+    private TextView findActionBarTitle() {
+        if (titleTextViewOnActionBar == null && mActionBarView instanceof ViewGroup) {
+            ViewGroup actionBar = (ViewGroup) mActionBarView;
+            for (int i = 0; i < actionBar.getChildCount(); i++) {
+                View v = actionBar.getChildAt(i);
+                if (v instanceof TextView) {
+                    titleTextViewOnActionBar = (TextView) v;
+                    break;
+                }
+            }
+        }
+        return titleTextViewOnActionBar;
+    }
 
-            ViewGroup.LayoutParams layoutParams = myToolbar.getLayoutParams();
-            layoutParams.width = width + 100;
-            myToolbar.setLayoutParams(layoutParams);
+    /**
+     * Places the title where the guillotine rotation by the closed angle brings it exactly over the action bar title.
+     */
+    private void updateTitlePosition() {
+        TextView title = titleTextViewOnActionBar;
+        float x = title.getLeft() + title.getTranslationX() + title.getWidth() / 2f;
+        float y = title.getTop() + title.getTranslationY() + title.getHeight() / 2f;
+        ViewParent guillotineParent = mGuillotineView.getParent();
+        View view = mActionBarView;
+        while (view != null) {
+            x += view.getLeft();
+            y += view.getTop();
+            ViewParent parent = view.getParent();
+            if (parent == guillotineParent || !(parent instanceof View)) break;
+            view = (View) parent;
+        }
+        x -= mGuillotineView.getLeft();
+        y -= mGuillotineView.getTop();
+        //  Turn the point by 90 degrees around the pivot, which undoes the closed angle
+        float pivotX = mGuillotineView.getPivotX();
+        float pivotY = mGuillotineView.getPivotY();
+        mTitleDrawable.setCenter(pivotX - (y - pivotY), pivotY + (x - pivotX));
+        mTitleDrawable.setGeometry(mGuillotineView.getLeft(), mGuillotineView.getTop(), pivotX, pivotY);
+    }
 
-            int center = width/2;
-            int position = center - titleTextViewOnActionBar.getWidth()/2;
-            titleTextViewOnActionBar.setX(position - leftMargin);
-            titleTextViewOnActionBar.setTranslationY(0);
+    private void resolvePivots() {
+        boolean isTraced = GuillotineTrace.beginSection(TRACE_PIVOTS);
+        try {
+            mGuillotineView.setPivotX(calculatePivotX(mClosingView));
+            mGuillotineView.setPivotY(calculatePivotY(mClosingView));
+            if (isTitleShownOnGuillotine) {
+                updateTitlePosition();
+            }
+        } finally {
+            GuillotineTrace.endSection(isTraced);
         }
     }
 
@@ -343,21 +1361,125 @@ public class GuillotineAnimation {
         return burger.getLeft() + burger.getWidth() / 2;
     }
 
+    /**
+     * Resting state of a guillotine, see {@link #onSaveInstanceState()}.
+     */
+    public static class SavedState implements Parcelable {
+        private final boolean isOpened;
+
+        SavedState(boolean isOpened) {
+            this.isOpened = isOpened;
+        }
+
+        private SavedState(Parcel source) {
+            this.isOpened = source.readInt() != 0;
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeInt(isOpened ? 1 : 0);
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel source) {
+                return new SavedState(source);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
     public static class GuillotineBuilder {
         private final View guillotineView;
         private final View openingView;
         private final View closingView;
+        private final GuillotineViewFactory guillotineViewFactory;
+        private final int closingViewId;
+        private boolean isInflatedWhenIdle;
+        private boolean isPrewarmedWhenIdle;
         private View actionBarView;
         private GuillotineListener guillotineListener;
-        //private long duration;
-        private long startDelay;
-        private TimeInterpolator interpolator;
+        private long openingDuration = DURATION_OPENING;
+        private long closingDuration = DURATION_CLOSING;
+        private long openingStartDelay;
+        private long closingStartDelay;
+        private TimeInterpolator openingInterpolator;
+        private TimeInterpolator closingInterpolator;
         private boolean isClosedOnStart;
+        private PhysicsSimulation physicsSimulation;
+        private GuillotineMetricsListener metricsListener;
+        private int renderMode = RENDER_MODE_DEFAULT;
+        private BitmapPool bitmapPool;
+        private float snapshotScale = 1f;
+        private Bitmap.Config snapshotConfig = Bitmap.Config.ARGB_8888;
+        private final ArrayList<GuillotineProgressListener> progressListeners = new ArrayList<>();
+        private QualityTierSelector qualitySelector;
+        private GuillotineQualityListener qualityListener;
+        private GuillotineCoordinator coordinator;
+        private Activity releaseActivity;
+        private int itemContainerId = View.NO_ID;
+        private float itemStaggerOffset;
 
         public GuillotineBuilder(View guillotineView, View closingView, View openingView) {
             this.guillotineView = guillotineView;
             this.openingView = openingView;
             this.closingView = closingView;
+            this.guillotineViewFactory = null;
+            this.closingViewId = View.NO_ID;
+        }
+
+        /**
+         * Creates the guillotine view only when it is needed for the first time: on the first opening,
+         * or when the screen goes idle if {@link #setInflateWhenIdle(boolean)} is set.
+         * The guillotine then always starts closed.
+         *
+         * @param closingViewId id of the closing view inside the guillotine view
+         */
+        public GuillotineBuilder(GuillotineViewFactory guillotineViewFactory, @IdRes int closingViewId, View openingView) {
+            this.guillotineView = null;
+            this.openingView = openingView;
+            this.closingView = null;
+            this.guillotineViewFactory = guillotineViewFactory;
+            this.closingViewId = closingViewId;
+        }
+
+        /**
+         * Inflates the guillotine layout on demand and adds it on top of the given parent.
+         *
+         * @see #GuillotineBuilder(GuillotineViewFactory, int, View)
+         */
+        public GuillotineBuilder(final ViewGroup parent, @LayoutRes final int guillotineLayoutId, @IdRes int closingViewId, View openingView) {
+            this(new GuillotineViewFactory() {
+                @Override
+                public View createGuillotineView() {
+                    View guillotineView = LayoutInflater.from(parent.getContext()).inflate(guillotineLayoutId, parent, false);
+                    parent.addView(guillotineView);
+                    return guillotineView;
+                }
+            }, closingViewId, openingView);
+        }
+
+        /**
+         * Inflates the guillotine from the given stub on demand.
+         *
+         * @see #GuillotineBuilder(GuillotineViewFactory, int, View)
+         */
+        public GuillotineBuilder(final ViewStub guillotineStub, @IdRes int closingViewId, View openingView) {
+            this(new GuillotineViewFactory() {
+                @Override
+                public View createGuillotineView() {
+                    return guillotineStub.inflate();
+                }
+            }, closingViewId, openingView);
         }
 
         public GuillotineBuilder setActionBarViewForAnimation(View view) {
@@ -371,19 +1493,89 @@ public class GuillotineAnimation {
             return this;
         }
 
-        /*
+        /**
+         * Duration of a full swing in both directions. A partial or reversed swing is scaled down
+         * to the angle that is left to go.
+         */
         public GuillotineBuilder setDuration(long duration) {
-            this.duration = duration;
+            this.openingDuration = duration;
+            this.closingDuration = duration;
+            return this;
+        }
+
+        public GuillotineBuilder setOpeningDuration(long openingDuration) {
+            this.openingDuration = openingDuration;
             return this;
-        }*/
+        }
 
+        public GuillotineBuilder setClosingDuration(long closingDuration) {
+            this.closingDuration = closingDuration;
+            return this;
+        }
+
+        /**
+         * Delay before both the opening and the closing start, for example to let a ripple finish.
+         * It only applies when the app starts the guillotine from rest through {@code open()} or {@code close()}:
+         * taps on the opening and the closing view, drags and reversals start on the next frame. Every frame of
+         * delay is latency the user feels, so keep it at 0 unless the app's own touch feedback needs the time.
+         * Ignored by a physics simulation.
+         */
         public GuillotineBuilder setStartDelay(long startDelay) {
-            this.startDelay = startDelay;
+            this.openingStartDelay = startDelay;
+            this.closingStartDelay = startDelay;
+            return this;
+        }
+
+        public GuillotineBuilder setOpeningStartDelay(long openingStartDelay) {
+            this.openingStartDelay = openingStartDelay;
             return this;
         }
 
+        public GuillotineBuilder setClosingStartDelay(long closingStartDelay) {
+            this.closingStartDelay = closingStartDelay;
+            return this;
+        }
+
+        /**
+         * Interpolator of both directions, for example a {@link GuillotineInterpolator} for a bounce.
+         * Ignored by a physics simulation.
+         */
         public GuillotineBuilder setInterpolator(TimeInterpolator interpolator) {
-            this.interpolator = interpolator;
+            this.openingInterpolator = interpolator;
+            this.closingInterpolator = interpolator;
+            return this;
+        }
+
+        public GuillotineBuilder setOpeningInterpolator(TimeInterpolator openingInterpolator) {
+            this.openingInterpolator = openingInterpolator;
+            return this;
+        }
+
+        public GuillotineBuilder setClosingInterpolator(TimeInterpolator closingInterpolator) {
+            this.closingInterpolator = closingInterpolator;
+            return this;
+        }
+
+        /**
+         * @see GuillotineAnimation#addProgressListener(GuillotineProgressListener)
+         */
+        public GuillotineBuilder addProgressListener(GuillotineProgressListener progressListener) {
+            this.progressListeners.add(progressListener);
+            return this;
+        }
+
+        /**
+         * Lets the children of a container inside the guillotine cascade in as it opens, following the
+         * rotation frame by frame. Only children visible inside the container are animated.
+         * Ignored in {@link #RENDER_MODE_SNAPSHOT}.
+         *
+         * @param itemContainerId id of the view group inside the guillotine whose children are animated
+         * @param staggerOffset   part of the swing, from 0 to 1, between the starts of two neighbouring children,
+         *                        for example 0.05. It is reduced when the children would not fit in the swing otherwise
+         */
+        public GuillotineBuilder setItemChoreography(@IdRes int itemContainerId, float staggerOffset) {
+            this.itemContainerId = itemContainerId;
+            this.itemStaggerOffset = staggerOffset;
             return this;
         }
 
@@ -392,8 +1584,126 @@ public class GuillotineAnimation {
             return this;
         }
 
+        /**
+         * For a guillotine created on demand, creates it as soon as the screen has drawn its first frame
+         * and the main thread is idle, instead of on the first opening.
+         */
+        public GuillotineBuilder setInflateWhenIdle(boolean isInflatedWhenIdle) {
+            this.isInflatedWhenIdle = isInflatedWhenIdle;
+            return this;
+        }
+
+        /**
+         * Drives the rotation with a physics simulation, for example a {@link com.yalantis.guillotine.util.GravitySimulation}
+         * or a {@link com.yalantis.guillotine.util.SpringSimulation}, instead of the fixed-duration animators.
+         * The velocity of a fling or of a reversal then carries over into the motion.
+         */
+        public GuillotineBuilder setPhysicsSimulation(PhysicsSimulation physicsSimulation) {
+            this.physicsSimulation = physicsSimulation;
+            return this;
+        }
+
+        /**
+         * Reports frame count, frame interval histogram, dropped and janky frames, first frame latency
+         * and duration of every opening and closing. Nothing is measured unless a listener is set.
+         */
+        public GuillotineBuilder setMetricsListener(GuillotineMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Measures every opening and closing and steps down to a cheaper animation on a device that keeps
+         * dropping frames: first without the title and the item choreography, then to a plain cross-fade.
+         *
+         * @param qualitySelector decides the tier, {@code new QualityTierSelector()} for the default thresholds
+         * @param qualityListener told whenever the tier changes, may be null
+         */
+        public GuillotineBuilder setAdaptiveQuality(QualityTierSelector qualitySelector, GuillotineQualityListener qualityListener) {
+            this.qualitySelector = qualitySelector;
+            this.qualityListener = qualityListener;
+            return this;
+        }
+
+        /**
+         * Makes this guillotine close without animation whenever another guillotine of the same
+         * coordinator starts opening, for example {@link GuillotineCoordinator#getDefault()}.
+         */
+        public GuillotineBuilder setCoordinator(GuillotineCoordinator coordinator) {
+            this.coordinator = coordinator;
+            return this;
+        }
+
+        /**
+         * @param renderMode one of {@link #RENDER_MODE_DEFAULT}, {@link #RENDER_MODE_HARDWARE_LAYER},
+         *                   {@link #RENDER_MODE_VIEW_PROPERTY_ANIMATOR} or {@link #RENDER_MODE_SNAPSHOT}
+         */
+        public GuillotineBuilder setRenderMode(int renderMode) {
+            this.renderMode = renderMode;
+            return this;
+        }
+
+        /**
+         * Pool the {@link #RENDER_MODE_SNAPSHOT} bitmap is taken from, {@link BitmapPool#getDefault(Context)} if not set.
+         */
+        public GuillotineBuilder setBitmapPool(BitmapPool bitmapPool) {
+            this.bitmapPool = bitmapPool;
+            return this;
+        }
+
+        /**
+         * Draws the {@link #RENDER_MODE_SNAPSHOT} bitmap at a fraction of the guillotine size, it is scaled back
+         * up with filtering while it moves. 0.5 takes a quarter of the memory, which suits low-RAM devices.
+         *
+         * @param snapshotScale from above 0 to 1, the default
+         */
+        public GuillotineBuilder setSnapshotScale(float snapshotScale) {
+            if (snapshotScale <= 0 || snapshotScale > 1) {
+                throw new IllegalArgumentException("snapshotScale must be in (0, 1]");
+            }
+            this.snapshotScale = snapshotScale;
+            return this;
+        }
+
+        /**
+         * Config of the {@link #RENDER_MODE_SNAPSHOT} bitmap. {@link Bitmap.Config#RGB_565} halves its memory, for
+         * example when {@link android.app.ActivityManager#isLowRamDevice()}, but it has no alpha channel, so it
+         * only suits a guillotine with an opaque background.
+         *
+         * @param snapshotConfig {@link Bitmap.Config#ARGB_8888}, the default, or {@link Bitmap.Config#RGB_565}
+         */
+        public GuillotineBuilder setSnapshotConfig(Bitmap.Config snapshotConfig) {
+            if (snapshotConfig != Bitmap.Config.ARGB_8888 && snapshotConfig != Bitmap.Config.RGB_565) {
+                throw new IllegalArgumentException("snapshotConfig must be ARGB_8888 or RGB_565");
+            }
+            this.snapshotConfig = snapshotConfig;
+            return this;
+        }
+
+        /**
+         * Calls {@link GuillotineAnimation#prewarm()} as soon as the screen has drawn its first frame and the
+         * main thread is idle, so that the first opening renders as cheaply as the following ones.
+         */
+        public GuillotineBuilder setPrewarmWhenIdle(boolean isPrewarmedWhenIdle) {
+            this.isPrewarmedWhenIdle = isPrewarmedWhenIdle;
+            return this;
+        }
+
+        /**
+         * Calls {@link GuillotineAnimation#release()} when the given activity is destroyed.
+         */
+        public GuillotineBuilder setReleaseOnDestroy(Activity activity) {
+            this.releaseActivity = activity;
+            return this;
+        }
+
         public GuillotineAnimation build() {
-            return new GuillotineAnimation(this);
+            GuillotineAnimation guillotineAnimation = new GuillotineAnimation(this);
+            if (releaseActivity != null) {
+                releaseActivity.getApplication().registerActivityLifecycleCallbacks(
+                        new ReleaseOnDestroyCallbacks(releaseActivity, guillotineAnimation));
+            }
+            return guillotineAnimation;
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.yalantis.guillotine.animation;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps the guillotines of several screens (fragments, activities) from moving at the same time:
+ * as soon as one of them starts opening or is dragged, every other one is closed without animation.
+ * <p>
+ * A guillotine is registered while its action bar view is attached to a window, so detached screens
+ * are dropped automatically and never kept alive by the coordinator. Must be used on the main thread.
+ */
+public class GuillotineCoordinator {
+    private static GuillotineCoordinator sDefault;
+
+    private final ArrayList<GuillotineAnimation> mAnimations = new ArrayList<>();
+
+    /**
+     * @return a coordinator shared by the whole process
+     */
+    public static GuillotineCoordinator getDefault() {
+        if (sDefault == null) {
+            sDefault = new GuillotineCoordinator();
+        }
+        return sDefault;
+    }
+
+    void register(GuillotineAnimation animation) {
+        if (!mAnimations.contains(animation)) {
+            mAnimations.add(animation);
+        }
+    }
+
+    void unregister(GuillotineAnimation animation) {
+        mAnimations.remove(animation);
+    }
+
+    /**
+     * Called by a guillotine that starts opening or is grabbed by a drag.
+     */
+    void onGuillotineMoving(GuillotineAnimation animation) {
+        //  Backwards, since a closed listener may unregister its own guillotine
+        for (int i = mAnimations.size() - 1; i >= 0; i--) {
+            if (i < mAnimations.size() && mAnimations.get(i) != animation) {
+                mAnimations.get(i).snapClosed();
+            }
+        }
+    }
+
+    /**
+     * Closes every registered guillotine without animation.
+     */
+    public void closeAll() {
+        onGuillotineMoving(null);
+    }
+
+    /**
+     * @return number of guillotines currently attached to a window
+     */
+    public int getRegisteredCount() {
+        return mAnimations.size();
+    }
+}
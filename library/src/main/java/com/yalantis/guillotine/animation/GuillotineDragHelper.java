@@ -0,0 +1,171 @@
+package com.yalantis.guillotine.animation;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+
+/**
+ * Turns a drag on the action bar (opening) or on the left edge of the guillotine (closing)
+ * into a rotation that follows the finger, and hands the release velocity over to
+ * {@link GuillotineAnimation} to settle the guillotine.
+ */
+class GuillotineDragHelper implements View.OnTouchListener {
+    private static final int CLOSING_EDGE_SIZE_DP = 24;
+    private static final int INVALID_POINTER = -1;
+
+    private final GuillotineAnimation mAnimation;
+    private final boolean isOpeningGesture;
+    private final int mTouchSlop;
+    private final int mMinFlingVelocity;
+    private final int mMaxFlingVelocity;
+    private final float mEdgeSize;
+    private final int[] mParentLocation = new int[2];
+
+    private VelocityTracker mVelocityTracker;
+    private int mActivePointerId = INVALID_POINTER;
+    private boolean isDragging;
+    private float mDownX;
+    private float mDownY;
+    private float mDownAngle;
+    private float mDownRotation;
+    private float mPivotX;
+    private float mPivotY;
+
+    GuillotineDragHelper(GuillotineAnimation animation, Context context, boolean isOpeningGesture) {
+        this.mAnimation = animation;
+        this.isOpeningGesture = isOpeningGesture;
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        this.mTouchSlop = configuration.getScaledTouchSlop();
+        this.mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        this.mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        this.mEdgeSize = CLOSING_EDGE_SIZE_DP * context.getResources().getDisplayMetrics().density;
+    }
+
+    @Override
+    public boolean onTouch(View view, MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                return onDown(view, event);
+            case MotionEvent.ACTION_MOVE:
+                return onMove(view, event);
+            case MotionEvent.ACTION_POINTER_UP:
+                if (event.getPointerId(event.getActionIndex()) != mActivePointerId) {
+                    return isDragging;
+                }
+                // The tracked (first) pointer went up, so the gesture ends here
+            case MotionEvent.ACTION_UP:
+                return onUp(view, event, false);
+            case MotionEvent.ACTION_CANCEL:
+                return onUp(view, event, true);
+        }
+        return isDragging;
+    }
+
+    private boolean onDown(View view, MotionEvent event) {
+        reset();
+        if (!mAnimation.canStartDrag(isOpeningGesture)) {
+            return false;
+        }
+        if (!isOpeningGesture && event.getX() > mEdgeSize) {
+            return false;
+        }
+        mActivePointerId = event.getPointerId(0);
+        mDownX = event.getRawX();
+        mDownY = event.getRawY();
+        mVelocityTracker = VelocityTracker.obtain();
+        addMovement(event);
+        return true;
+    }
+
+    private boolean onMove(View view, MotionEvent event) {
+        if (mActivePointerId == INVALID_POINTER || event.findPointerIndex(mActivePointerId) != 0) {
+            return isDragging;
+        }
+        addMovement(event);
+        float x = event.getRawX();
+        float y = event.getRawY();
+        if (!isDragging) {
+            float dx = x - mDownX;
+            float dy = y - mDownY;
+            boolean isPastSlop = isOpeningGesture
+                    ? dy > mTouchSlop && dy > Math.abs(dx)
+                    : dx > mTouchSlop && dx > Math.abs(dy);
+            if (!isPastSlop || !mAnimation.canStartDrag(isOpeningGesture)) {
+                return true;
+            }
+            isDragging = true;
+            ViewParent parent = view.getParent();
+            if (parent != null) {
+                parent.requestDisallowInterceptTouchEvent(true);
+            }
+            mAnimation.startDrag();
+            updatePivot();
+            mDownAngle = angleTo(mDownX, mDownY);
+            mDownRotation = mAnimation.getRotation();
+        }
+        mAnimation.dragTo(mDownRotation + normalizeAngle(angleTo(x, y) - mDownAngle));
+        return true;
+    }
+
+    private boolean onUp(View view, MotionEvent event, boolean isCanceled) {
+        boolean wasDragging = isDragging;
+        if (wasDragging) {
+            float angularVelocity = 0;
+            float minAngularVelocity = 0;
+            if (!isCanceled) {
+                addMovement(event);
+                mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+                float rx = event.getRawX() - mPivotX;
+                float ry = event.getRawY() - mPivotY;
+                float radiusSquared = Math.max(rx * rx + ry * ry, 1f);
+                //  Tangential part of the linear velocity, in degrees per second around the pivot
+                angularVelocity = (float) Math.toDegrees((rx * mVelocityTracker.getYVelocity() - ry * mVelocityTracker.getXVelocity()) / radiusSquared);
+                minAngularVelocity = (float) Math.toDegrees(mMinFlingVelocity / Math.sqrt(radiusSquared));
+            }
+            mAnimation.finishDrag(angularVelocity, minAngularVelocity);
+        }
+        reset();
+        return wasDragging;
+    }
+
+    private void reset() {
+        isDragging = false;
+        mActivePointerId = INVALID_POINTER;
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    /**
+     * Feeds the tracker with screen coordinates, since the guillotine itself rotates under the finger.
+     */
+    private void addMovement(MotionEvent event) {
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        mVelocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+
+    private void updatePivot() {
+        View guillotineView = mAnimation.getGuillotineView();
+        View parent = (View) guillotineView.getParent();
+        parent.getLocationOnScreen(mParentLocation);
+        mPivotX = mParentLocation[0] + guillotineView.getLeft() + guillotineView.getPivotX();
+        mPivotY = mParentLocation[1] + guillotineView.getTop() + guillotineView.getPivotY();
+    }
+
+    private float angleTo(float x, float y) {
+        return (float) Math.toDegrees(Math.atan2(y - mPivotY, x - mPivotX));
+    }
+
+    private static float normalizeAngle(float angle) {
+        if (angle > 180f) return angle - 360f;
+        if (angle < -180f) return angle + 360f;
+        return angle;
+    }
+}
@@ -0,0 +1,112 @@
+package com.yalantis.guillotine.animation;
+
+/**
+ * Frame timing of a single guillotine opening or closing, reported through
+ * {@link com.yalantis.guillotine.interfaces.GuillotineMetricsListener}.
+ */
+public class GuillotineMetrics {
+    /**
+     * Width of a histogram bucket, in milliseconds.
+     */
+    public static final int HISTOGRAM_BUCKET_MS = 4;
+    /**
+     * Number of histogram buckets. The last one also holds every longer interval.
+     */
+    public static final int HISTOGRAM_BUCKET_COUNT = 16;
+
+    final int[] mHistogram = new int[HISTOGRAM_BUCKET_COUNT];
+    boolean isOpening;
+    boolean isInterrupted;
+    int mFrameCount;
+    int mDroppedFrameCount;
+    int mJankyFrameCount;
+    long mFrameIntervalNanos;
+    long mMaxFrameIntervalNanos;
+    long mFirstFrameLatencyNanos;
+    long mDurationNanos;
+
+    GuillotineMetrics() {
+    }
+
+    void reset(boolean isOpening, long frameIntervalNanos) {
+        this.isOpening = isOpening;
+        this.isInterrupted = false;
+        this.mFrameIntervalNanos = frameIntervalNanos;
+        mFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mJankyFrameCount = 0;
+        mMaxFrameIntervalNanos = 0;
+        mFirstFrameLatencyNanos = -1;
+        mDurationNanos = 0;
+        for (int i = 0; i < mHistogram.length; i++) {
+            mHistogram[i] = 0;
+        }
+    }
+
+    /**
+     * @return true for an opening, false for a closing
+     */
+    public boolean isOpening() {
+        return isOpening;
+    }
+
+    /**
+     * @return true if the animation was reversed or taken over by a drag before it ended
+     */
+    public boolean isInterrupted() {
+        return isInterrupted;
+    }
+
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return vsync intervals that passed without a new frame
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    /**
+     * @return frames that came more than one and a half vsync intervals after the previous one
+     */
+    public int getJankyFrameCount() {
+        return mJankyFrameCount;
+    }
+
+    /**
+     * @return the display vsync interval the other values were measured against
+     */
+    public long getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    public long getMaxFrameIntervalNanos() {
+        return mMaxFrameIntervalNanos;
+    }
+
+    /**
+     * @return time from the open() or close() call (or the release of a drag) to the first animation frame,
+     * including the wait for the posted request, or -1 if no frame was drawn
+     */
+    public long getFirstFrameLatencyNanos() {
+        return mFirstFrameLatencyNanos;
+    }
+
+    /**
+     * @return time from the open() or close() call (or the release of a drag) to the end of the animation
+     */
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+    /**
+     * @param bucket index from 0 to {@link #HISTOGRAM_BUCKET_COUNT} - 1, covering frame intervals
+     *               from {@code bucket * HISTOGRAM_BUCKET_MS} up to the next bucket
+     * @return number of frames whose interval fell into the bucket
+     */
+    public int getHistogramCount(int bucket) {
+        return mHistogram[bucket];
+    }
+}
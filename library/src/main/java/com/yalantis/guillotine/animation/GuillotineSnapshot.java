@@ -0,0 +1,132 @@
+package com.yalantis.guillotine.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.yalantis.guillotine.util.BitmapPool;
+
+/**
+ * Renders the guillotine view once into a pooled bitmap and shows it through the parent's overlay
+ * while the live view is hidden, so a moving guillotine costs one bitmap draw per frame.
+ * <p>
+ * The snapshot is taken at the guillotine's size times the scale, in the given config. It is drawn
+ * when an animation starts, unless {@link #prepare()} already did, and kept between animations until
+ * the view is laid out again or {@link #invalidate()} is called. The bitmap only goes back to the pool
+ * through {@link #recycle()}.
+ */
+class GuillotineSnapshot implements View.OnLayoutChangeListener {
+    private final View mView;
+    private final BitmapPool mPool;
+    private final float mScale;
+    private final Bitmap.Config mConfig;
+    private final SnapshotDrawable mDrawable = new SnapshotDrawable();
+    private final Canvas mCanvas = new Canvas();
+
+    private Bitmap mBitmap;
+    private boolean isDirty = true;
+    private boolean isShown;
+
+    GuillotineSnapshot(View view, BitmapPool pool, float scale, Bitmap.Config config) {
+        this.mView = view;
+        this.mPool = pool;
+        this.mScale = scale;
+        this.mConfig = config;
+        view.addOnLayoutChangeListener(this);
+    }
+
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        isDirty = true;
+    }
+
+    void invalidate() {
+        isDirty = true;
+    }
+
+    /**
+     * Draws the snapshot ahead of time if it is out of date.
+     *
+     * @return false if the view has not been laid out yet
+     */
+    boolean prepare() {
+        return !isDirty || capture();
+    }
+
+    /**
+     * Swaps the live view for the snapshot.
+     *
+     * @return false if the view has not been laid out yet and has to be animated live
+     */
+    boolean show() {
+        if (isShown) return true;
+        if (isDirty && !capture()) return false;
+        ViewGroup parent = (ViewGroup) mView.getParent();
+        mDrawable.setBounds(0, 0, parent.getWidth(), parent.getHeight());
+        mDrawable.setGeometry(mView.getLeft(), mView.getTop(), mView.getPivotX(), mView.getPivotY());
+        mDrawable.setRotation(mView.getRotation());
+        parent.getOverlay().add(mDrawable);
+        isShown = true;
+        return true;
+    }
+
+    void setRotation(float rotation) {
+        if (isShown) {
+            mDrawable.setRotation(rotation);
+        }
+    }
+
+    /**
+     * Removes the snapshot from the overlay. The bitmap is kept for the next animation.
+     */
+    void hide() {
+        if (!isShown) return;
+        isShown = false;
+        ((ViewGroup) mView.getParent()).getOverlay().remove(mDrawable);
+    }
+
+    boolean isShown() {
+        return isShown;
+    }
+
+    /**
+     * Hides the snapshot and gives its bitmap back to the pool, the next {@link #show()} draws a new one.
+     */
+    void recycle() {
+        hide();
+        mDrawable.setBitmap(null, 1f);
+        mPool.release(mBitmap);
+        mBitmap = null;
+        isDirty = true;
+    }
+
+    /**
+     * Recycles the bitmap and stops following the layout of the guillotine.
+     */
+    void release() {
+        recycle();
+        mView.removeOnLayoutChangeListener(this);
+    }
+
+    private boolean capture() {
+        if (mView.getWidth() == 0 || mView.getHeight() == 0) return false;
+        int width = (int) Math.ceil(mView.getWidth() * mScale);
+        int height = (int) Math.ceil(mView.getHeight() * mScale);
+        if (mBitmap == null || mBitmap.getWidth() != width || mBitmap.getHeight() != height) {
+            mPool.release(mBitmap);
+            mBitmap = mPool.acquire(width, height, mConfig);
+        }
+        mBitmap.eraseColor(Color.TRANSPARENT);
+        mCanvas.setBitmap(mBitmap);
+        int saveCount = mCanvas.save();
+        mCanvas.scale(mScale, mScale);
+        mView.draw(mCanvas);
+        mCanvas.restoreToCount(saveCount);
+        mCanvas.setBitmap(null);
+        mDrawable.setBitmap(mBitmap, mScale);
+        isDirty = false;
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Cascades the children of a menu container in as the guillotine opens, from the same progress that
+ * drives the rotation. Every child fades and slides in over a part of the swing, starting a stagger
+ * offset after the previous one, so the last child arrives together with the guillotine.
+ * <p>
+ * The children that are visible inside the container are collected once, when the guillotine starts
+ * moving, so a frame costs one alpha and one translation per visible child and children that are gone
+ * or out of the container bounds are never touched. They are kept in arrays that only grow, nothing is
+ * allocated per opening once the arrays fit the container.
+ */
+class ItemChoreographer {
+    private static final float SLIDE_DISTANCE_DP = 48;
+    private static final float MIN_ITEM_SPAN = 0.25f;
+
+    private final ViewGroup mContainer;
+    private final float mStaggerOffset;
+    private final float mSlideDistance;
+
+    private View[] mItems = new View[0];
+    private float[] mItemStarts = new float[0];
+    private int mItemCount;
+    private float mItemSpan;
+    private boolean isPrepared;
+
+    /**
+     * @param staggerOffset part of the swing between the starts of two neighbouring children
+     */
+    ItemChoreographer(ViewGroup container, float staggerOffset) {
+        this.mContainer = container;
+        this.mStaggerOffset = staggerOffset;
+        this.mSlideDistance = SLIDE_DISTANCE_DP * container.getResources().getDisplayMetrics().density;
+    }
+
+    /**
+     * @param progress 0 when the guillotine is closed, 1 when it is opened
+     */
+    void update(float progress) {
+        if (!isPrepared) {
+            prepare();
+        }
+        for (int i = 0; i < mItemCount; i++) {
+            float itemProgress = Math.max(0f, Math.min(1f, (progress - mItemStarts[i]) / mItemSpan));
+            View item = mItems[i];
+            item.setAlpha(itemProgress);
+            item.setTranslationX(-mSlideDistance * (1f - itemProgress));
+        }
+    }
+
+    /**
+     * Puts the children back to rest once the guillotine stopped, and forgets them until it moves again.
+     */
+    void reset() {
+        if (!isPrepared) return;
+        isPrepared = false;
+        for (int i = 0; i < mItemCount; i++) {
+            mItems[i].setAlpha(1f);
+            mItems[i].setTranslationX(0f);
+            mItems[i] = null;
+        }
+        mItemCount = 0;
+    }
+
+    private void prepare() {
+        isPrepared = true;
+        int childCount = mContainer.getChildCount();
+        if (mItems.length < childCount) {
+            mItems = new View[childCount];
+            mItemStarts = new float[childCount];
+        }
+        int top = mContainer.getScrollY();
+        int bottom = top + mContainer.getHeight();
+        mItemCount = 0;
+        for (int i = 0; i < childCount; i++) {
+            View child = mContainer.getChildAt(i);
+            if (child.getVisibility() == View.VISIBLE && child.getBottom() > top && child.getTop() < bottom) {
+                mItems[mItemCount++] = child;
+            }
+        }
+        //  Shrinks the stagger when there are too many children for every one of them to get a decent share of the swing
+        float staggerOffset = mItemCount > 1 ? Math.min(mStaggerOffset, (1f - MIN_ITEM_SPAN) / (mItemCount - 1)) : 0f;
+        for (int i = 0; i < mItemCount; i++) {
+            mItemStarts[i] = i * staggerOffset;
+        }
+        mItemSpan = 1f - (mItemCount - 1) * staggerOffset;
+    }
+}
@@ -0,0 +1,63 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.Choreographer;
+
+import com.yalantis.guillotine.util.PhysicsSimulation;
+
+/**
+ * Drives the guillotine rotation from a {@link PhysicsSimulation} on every {@link Choreographer} frame.
+ */
+class PhysicsRotationDriver implements Choreographer.FrameCallback {
+    private final GuillotineAnimation mAnimation;
+    private final PhysicsSimulation mSimulation;
+
+    private boolean isRunning;
+    private long mLastFrameTimeNanos;
+
+    PhysicsRotationDriver(GuillotineAnimation animation, PhysicsSimulation simulation) {
+        this.mAnimation = animation;
+        this.mSimulation = simulation;
+    }
+
+    void start(float rotation, float velocity, float target) {
+        mSimulation.start(rotation, velocity, target);
+        mLastFrameTimeNanos = AnimationClock.nanoTime();
+        if (!isRunning) {
+            isRunning = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void cancel() {
+        if (isRunning) {
+            isRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * @return current angular velocity in degrees per second, or 0 when not running
+     */
+    float getVelocity() {
+        return isRunning ? mSimulation.getVelocity() : 0;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!isRunning) return;
+        float elapsedTime = (frameTimeNanos - mLastFrameTimeNanos) / 1e9f;
+        mLastFrameTimeNanos = Math.max(mLastFrameTimeNanos, frameTimeNanos);
+        boolean isAtRest = mSimulation.advance(elapsedTime);
+        mAnimation.applyRotation(mSimulation.getPosition());
+        if (isAtRest) {
+            isRunning = false;
+            mAnimation.onPhysicsSettled();
+        } else {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.yalantis.guillotine.animation;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+/**
+ * Releases a guillotine when its activity is destroyed and then unregisters itself,
+ * so neither the activity nor the guillotine outlives the screen.
+ */
+class ReleaseOnDestroyCallbacks implements Application.ActivityLifecycleCallbacks {
+    private final Activity mActivity;
+    private final GuillotineAnimation mAnimation;
+
+    ReleaseOnDestroyCallbacks(Activity activity, GuillotineAnimation animation) {
+        this.mActivity = activity;
+        this.mAnimation = animation;
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+        if (activity != mActivity) return;
+        mAnimation.release();
+        activity.getApplication().unregisterActivityLifecycleCallbacks(this);
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+    }
+}
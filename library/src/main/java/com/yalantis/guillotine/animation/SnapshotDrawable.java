@@ -0,0 +1,76 @@
+package com.yalantis.guillotine.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Draws the guillotine snapshot at the position and rotation the live view would have.
+ */
+class SnapshotDrawable extends Drawable {
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private Bitmap mBitmap;
+    private float mBitmapScale = 1f;
+    private float mLeft;
+    private float mTop;
+    private float mPivotX;
+    private float mPivotY;
+    private float mRotation;
+
+    /**
+     * @param bitmapScale size of the bitmap relative to the view it was drawn from
+     */
+    void setBitmap(Bitmap bitmap, float bitmapScale) {
+        this.mBitmap = bitmap;
+        this.mBitmapScale = bitmapScale;
+        invalidateSelf();
+    }
+
+    void setGeometry(float left, float top, float pivotX, float pivotY) {
+        this.mLeft = left;
+        this.mTop = top;
+        this.mPivotX = pivotX;
+        this.mPivotY = pivotY;
+    }
+
+    void setRotation(float rotation) {
+        if (mRotation != rotation) {
+            mRotation = rotation;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (mBitmap == null) return;
+        int saveCount = canvas.save();
+        canvas.translate(mLeft, mTop);
+        canvas.rotate(mRotation, mPivotX, mPivotY);
+        if (mBitmapScale != 1f) {
+            canvas.scale(1f / mBitmapScale, 1f / mBitmapScale);
+        }
+        canvas.drawBitmap(mBitmap, 0, 0, mPaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        mPaint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        mPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+}
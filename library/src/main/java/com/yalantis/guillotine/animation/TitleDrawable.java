@@ -0,0 +1,119 @@
+package com.yalantis.guillotine.animation;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.PointF;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.VisibleForTesting;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.widget.TextView;
+
+/**
+ * Draws the text of the action bar title, turned by 90 degrees, at the position and rotation the guillotine
+ * has. It lives in the overlay of the guillotine's parent, so that fading it out does not invalidate the
+ * guillotine itself, or its hardware layer. The title view stays in the action bar, so showing it causes no layout.
+ */
+class TitleDrawable extends Drawable {
+    private TextView mTitle;
+    private float mCenterX;
+    private float mCenterY;
+    private float mLeft;
+    private float mTop;
+    private float mPivotX;
+    private float mPivotY;
+    private float mRotation;
+    private int mAlpha = 255;
+
+    void setTitle(TextView title) {
+        this.mTitle = title;
+        invalidateSelf();
+    }
+
+    /**
+     * @param centerX horizontal center of the title in guillotine coordinates
+     * @param centerY vertical center of the title in guillotine coordinates
+     */
+    void setCenter(float centerX, float centerY) {
+        this.mCenterX = centerX;
+        this.mCenterY = centerY;
+        invalidateSelf();
+    }
+
+    /**
+     * @param left   left of the guillotine in its parent
+     * @param top    top of the guillotine in its parent
+     * @param pivotX pivot of the guillotine rotation
+     * @param pivotY pivot of the guillotine rotation
+     */
+    void setGeometry(float left, float top, float pivotX, float pivotY) {
+        this.mLeft = left;
+        this.mTop = top;
+        this.mPivotX = pivotX;
+        this.mPivotY = pivotY;
+        invalidateSelf();
+    }
+
+    void setRotation(float rotation) {
+        if (mRotation != rotation) {
+            mRotation = rotation;
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * @return center of the title in the guillotine's parent, where the current rotation puts it
+     */
+    @VisibleForTesting
+    PointF getCenterInParent() {
+        double radians = Math.toRadians(mRotation);
+        float dx = mCenterX - mPivotX;
+        float dy = mCenterY - mPivotY;
+        return new PointF(mLeft + mPivotX + (float) (dx * Math.cos(radians) - dy * Math.sin(radians)),
+                mTop + mPivotY + (float) (dx * Math.sin(radians) + dy * Math.cos(radians)));
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (mTitle == null || mAlpha == 0) return;
+        Layout layout = mTitle.getLayout();
+        if (layout == null) return;
+        int saveCount = canvas.save();
+        canvas.translate(mLeft, mTop);
+        canvas.rotate(mRotation, mPivotX, mPivotY);
+        canvas.translate(mCenterX, mCenterY);
+        canvas.rotate(90);
+        canvas.translate(-mTitle.getWidth() / 2f + mTitle.getTotalPaddingLeft(), -mTitle.getHeight() / 2f + mTitle.getTotalPaddingTop());
+        //  The text view sets its paint color before every draw, so borrowing the paint here is safe
+        TextPaint paint = layout.getPaint();
+        int color = paint.getColor();
+        paint.setColor(mTitle.getCurrentTextColor());
+        paint.setAlpha(paint.getAlpha() * mAlpha / 255);
+        layout.draw(canvas);
+        paint.setColor(color);
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (mAlpha != alpha) {
+            mAlpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+}
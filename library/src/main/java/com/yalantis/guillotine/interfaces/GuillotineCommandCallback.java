@@ -0,0 +1,12 @@
+package com.yalantis.guillotine.interfaces;
+
+/**
+ * Answers a single {@code open()} or {@code close()} request of a guillotine.
+ */
+public interface GuillotineCommandCallback {
+    /**
+     * @param isApplied true once the guillotine is at rest in the requested state, false if a later
+     *                  request for the other state, a drag or {@code release()} got in the way
+     */
+    void onGuillotineCommandCompleted(boolean isApplied);
+}
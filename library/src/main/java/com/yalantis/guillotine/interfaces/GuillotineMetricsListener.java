@@ -0,0 +1,14 @@
+package com.yalantis.guillotine.interfaces;
+
+import com.yalantis.guillotine.animation.GuillotineMetrics;
+
+/**
+ * Receives frame timing of every guillotine opening and closing.
+ */
+public interface GuillotineMetricsListener {
+    /**
+     * @param metrics timing of the animation that just ended. The instance is reused for the next
+     *                animation, so copy what you need before returning.
+     */
+    void onGuillotineMetrics(GuillotineMetrics metrics);
+}
@@ -0,0 +1,15 @@
+package com.yalantis.guillotine.interfaces;
+
+/**
+ * Follows the guillotine frame by frame, so that other effects (a scrim, the content scale, the
+ * toolbar alpha) can be kept in sync with it without animators of their own.
+ */
+public interface GuillotineProgressListener {
+    /**
+     * Called once per frame while the guillotine moves, whatever drives it: an animator, a drag or a physics simulation.
+     *
+     * @param progress 0 when closed, 1 when opened. A physics simulation may briefly overshoot this range
+     * @param rotation current rotation of the guillotine in degrees, from -90 (closed) to 0 (opened)
+     */
+    void onGuillotineProgress(float progress, float rotation);
+}
@@ -0,0 +1,13 @@
+package com.yalantis.guillotine.interfaces;
+
+/**
+ * Told when the adaptive quality mode changes how the guillotine is animated.
+ */
+public interface GuillotineQualityListener {
+    /**
+     * @param tier one of {@link com.yalantis.guillotine.util.QualityTierSelector#TIER_FULL},
+     *             {@link com.yalantis.guillotine.util.QualityTierSelector#TIER_SIMPLE_ROTATION} or
+     *             {@link com.yalantis.guillotine.util.QualityTierSelector#TIER_CROSS_FADE}
+     */
+    void onGuillotineQualityTierChanged(int tier);
+}
@@ -0,0 +1,13 @@
+package com.yalantis.guillotine.interfaces;
+
+import android.view.View;
+
+/**
+ * Creates the guillotine view on demand, so that it does not have to be inflated with the screen.
+ */
+public interface GuillotineViewFactory {
+    /**
+     * @return the guillotine view, already added to its parent on top of the content
+     */
+    View createGuillotineView();
+}
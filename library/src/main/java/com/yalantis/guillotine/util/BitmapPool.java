@@ -0,0 +1,96 @@
+package com.yalantis.guillotine.util;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.DisplayMetrics;
+
+import java.util.ArrayList;
+
+/**
+ * Size-bounded pool of mutable bitmaps used for guillotine snapshots.
+ * <p>
+ * Reuse rules: {@link #acquire(int, int, Bitmap.Config)} first looks for a free bitmap with the
+ * exact size and config, then for any free bitmap whose allocation is large enough, which is
+ * reconfigured in place. Only if neither exists a new bitmap is allocated. Free bitmaps are kept
+ * while their total allocation stays under the pool size, the oldest ones are recycled first.
+ * Bitmaps handed out are not counted, so the memory held by the pool itself never exceeds its size.
+ */
+public class BitmapPool {
+    private static BitmapPool sDefault;
+
+    private final int mMaxSizeBytes;
+    private final ArrayList<Bitmap> mBitmaps = new ArrayList<>();
+    private int mSizeBytes;
+
+    public BitmapPool(int maxSizeBytes) {
+        this.mMaxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * @return pool shared by every guillotine that was not given its own one. It keeps at most one ARGB_8888
+     * bitmap the size of the display, and nothing on low RAM devices, where every snapshot is allocated anew
+     */
+    public static synchronized BitmapPool getDefault(Context context) {
+        if (sDefault == null) {
+            ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+            int maxSizeBytes = activityManager != null && activityManager.isLowRamDevice()
+                    ? 0 : metrics.widthPixels * metrics.heightPixels * bytesPerPixel(Bitmap.Config.ARGB_8888);
+            sDefault = new BitmapPool(maxSizeBytes);
+        }
+        return sDefault;
+    }
+
+    public synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        int reusableIndex = -1;
+        int requiredBytes = width * height * bytesPerPixel(config);
+        for (int i = 0; i < mBitmaps.size(); i++) {
+            Bitmap bitmap = mBitmaps.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                return take(i);
+            }
+            if (reusableIndex < 0 && bitmap.getAllocationByteCount() >= requiredBytes) {
+                reusableIndex = i;
+            }
+        }
+        if (reusableIndex >= 0) {
+            Bitmap bitmap = take(reusableIndex);
+            bitmap.reconfigure(width, height, config);
+            return bitmap;
+        }
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        int bytes = bitmap.getAllocationByteCount();
+        if (bytes > mMaxSizeBytes) {
+            bitmap.recycle();
+            return;
+        }
+        while (mSizeBytes + bytes > mMaxSizeBytes) {
+            take(0).recycle();
+        }
+        mBitmaps.add(bitmap);
+        mSizeBytes += bytes;
+    }
+
+    public synchronized void clear() {
+        while (!mBitmaps.isEmpty()) {
+            take(0).recycle();
+        }
+    }
+
+    private Bitmap take(int index) {
+        Bitmap bitmap = mBitmaps.remove(index);
+        mSizeBytes -= bitmap.getAllocationByteCount();
+        return bitmap;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        return config == Bitmap.Config.ARGB_8888 ? 4 : 2;
+    }
+}
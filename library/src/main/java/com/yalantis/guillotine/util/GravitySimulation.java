@@ -0,0 +1,53 @@
+package com.yalantis.guillotine.util;
+
+/**
+ * Constant acceleration towards the target with a bounce on arrival: the velocity is reversed
+ * and scaled by the restitution, which gives the guillotine its falling-blade feel.
+ */
+public class GravitySimulation extends PhysicsSimulation {
+    public static final float DEFAULT_GRAVITY = 1800f;
+    public static final float DEFAULT_RESTITUTION = 0.3f;
+
+    private static final float REST_VELOCITY = 20f;
+
+    private final float mGravity;
+    private final float mRestitution;
+
+    public GravitySimulation() {
+        this(DEFAULT_GRAVITY, DEFAULT_RESTITUTION);
+    }
+
+    /**
+     * @param gravity     acceleration towards the target, in degrees per second squared
+     * @param restitution part of the velocity kept on each bounce, from 0 (no bounce) to below 1
+     */
+    public GravitySimulation(float gravity, float restitution) {
+        if (gravity <= 0) {
+            throw new IllegalArgumentException("gravity must be positive");
+        }
+        if (restitution < 0 || restitution >= 1) {
+            throw new IllegalArgumentException("restitution must be in [0, 1)");
+        }
+        this.mGravity = gravity;
+        this.mRestitution = restitution;
+    }
+
+    @Override
+    protected void step(float dt) {
+        float direction = Math.signum(mTarget - mPosition);
+        mVelocity += direction * mGravity * dt;
+        float position = mPosition + mVelocity * dt;
+        if (direction != 0 && Math.signum(mTarget - position) != direction) {
+            //  Passed the target during this step: bounce back from it
+            mPosition = mTarget;
+            mVelocity = -mVelocity * mRestitution;
+        } else {
+            mPosition = position;
+        }
+    }
+
+    @Override
+    protected boolean isAtRest() {
+        return mPosition == mTarget && Math.abs(mVelocity) < REST_VELOCITY;
+    }
+}
@@ -0,0 +1,106 @@
+package com.yalantis.guillotine.util;
+
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.VisibleForTesting;
+
+import com.yalantis.guillotine.BuildConfig;
+
+import java.lang.reflect.Method;
+
+/**
+ * Systrace / Perfetto instrumentation of the guillotine. Off unless the library is built with
+ * {@code GUILLOTINE_TRACE} set to true or {@link #setEnabled(boolean)} is called, and a disabled
+ * section or counter costs a single static field read.
+ * <p>
+ * Sections are used as
+ * <pre>
+ * boolean isTraced = GuillotineTrace.beginSection("name");
+ * try {
+ *     ...
+ * } finally {
+ *     GuillotineTrace.endSection(isTraced);
+ * }
+ * </pre>
+ * so they stay balanced even when tracing is switched on or off in between.
+ */
+public final class GuillotineTrace {
+    private static final int SET_COUNTER_API_LEVEL = 29;
+
+    private static boolean sEnabled = BuildConfig.GUILLOTINE_TRACE;
+    private static Method sSetCounterMethod;
+    private static boolean isSetCounterResolved;
+    //  Reused by every counter on the main thread, so that a frame does not allocate the varargs array
+    private static final Object[] sSetCounterArgs = new Object[2];
+    private static int sOpenSectionCount;
+
+    private GuillotineTrace() {
+    }
+
+    public static void setEnabled(boolean isEnabled) {
+        sEnabled = isEnabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * @return whether the section was opened, to be passed to {@link #endSection(boolean)}
+     */
+    public static boolean beginSection(String sectionName) {
+        if (!sEnabled) return false;
+        Trace.beginSection(sectionName);
+        sOpenSectionCount++;
+        return true;
+    }
+
+    public static void endSection(boolean isTraced) {
+        if (isTraced) {
+            Trace.endSection();
+            sOpenSectionCount--;
+        }
+    }
+
+    /**
+     * @return number of sections begun and not ended yet, 0 whenever the guillotine is idle
+     */
+    @VisibleForTesting
+    public static int getOpenSectionCount() {
+        return sOpenSectionCount;
+    }
+
+    /**
+     * Emits a counter track. Counters need API level 29, they are ignored on older platforms.
+     * Must be called on the main thread. Values from -128 to 127 do not allocate.
+     */
+    public static void setCounter(String counterName, long value) {
+        if (!sEnabled) return;
+        Method setCounterMethod = getSetCounterMethod();
+        if (setCounterMethod == null) return;
+        Object[] args = sSetCounterArgs;
+        args[0] = counterName;
+        //  Long.valueOf() hands out cached instances for small values, such as the states and the angles
+        args[1] = value;
+        try {
+            setCounterMethod.invoke(null, args);
+        } catch (Exception e) {
+            sSetCounterMethod = null;
+        }
+    }
+
+    //  Trace.setCounter() is newer than the compile SDK of the library
+    private static Method getSetCounterMethod() {
+        if (!isSetCounterResolved) {
+            isSetCounterResolved = true;
+            if (Build.VERSION.SDK_INT >= SET_COUNTER_API_LEVEL) {
+                try {
+                    sSetCounterMethod = Trace.class.getMethod("setCounter", String.class, long.class);
+                } catch (NoSuchMethodException e) {
+                    sSetCounterMethod = null;
+                }
+            }
+        }
+        return sSetCounterMethod;
+    }
+}
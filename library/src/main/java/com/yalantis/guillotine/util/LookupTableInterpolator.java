@@ -0,0 +1,54 @@
+package com.yalantis.guillotine.util;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * Samples another {@link TimeInterpolator} once into a float table and answers
+ * {@link #getInterpolation(float)} with a linear interpolation between two samples,
+ * so the per-frame cost does not depend on how expensive the wrapped curve is.
+ */
+public class LookupTableInterpolator implements TimeInterpolator {
+
+    public static final int DEFAULT_SAMPLE_COUNT = 201;
+
+    private final float[] mValues;
+    private final float mStepSize;
+
+    public LookupTableInterpolator(TimeInterpolator interpolator) {
+        this(interpolator, DEFAULT_SAMPLE_COUNT);
+    }
+
+    public LookupTableInterpolator(TimeInterpolator interpolator, int sampleCount) {
+        if (interpolator == null) {
+            throw new IllegalArgumentException("interpolator must not be null");
+        }
+        if (sampleCount < 2) {
+            throw new IllegalArgumentException("sampleCount must be at least 2");
+        }
+        mValues = new float[sampleCount];
+        mStepSize = 1f / (sampleCount - 1);
+        for (int i = 0; i < sampleCount; i++) {
+            mValues[i] = interpolator.getInterpolation(i * mStepSize);
+        }
+    }
+
+    /**
+     * Wraps the given interpolator unless it is already a lookup table.
+     */
+    public static TimeInterpolator wrap(TimeInterpolator interpolator) {
+        if (interpolator == null || interpolator instanceof LookupTableInterpolator) {
+            return interpolator;
+        }
+        return new LookupTableInterpolator(interpolator);
+    }
+
+    @Override
+    public float getInterpolation(float t) {
+        if (t <= 0f) return mValues[0];
+        if (t >= 1f) return mValues[mValues.length - 1];
+
+        int position = (int) (t * (mValues.length - 1));
+        float weight = (t - position * mStepSize) / mStepSize;
+        return mValues[position] + weight * (mValues[position + 1] - mValues[position]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.yalantis.guillotine.util;
+
+/**
+ * Base class for the physics-driven alternative to the closed-form interpolators.
+ * <p>
+ * A simulation moves a single value (the guillotine angle, in degrees) towards a target and
+ * can start with any velocity, so a fling or a reversal carries over into the motion.
+ * Time is advanced in fixed steps of {@link #FIXED_TIME_STEP} whatever the frame rate is,
+ * which keeps the result deterministic. All state lives in primitive fields, so advancing
+ * the simulation never allocates.
+ */
+public abstract class PhysicsSimulation {
+    public static final float FIXED_TIME_STEP = 1f / 240f;
+    private static final float MAX_ELAPSED_TIME = 0.1f;
+
+    protected float mPosition;
+    protected float mVelocity;
+    protected float mTarget;
+    private float mAccumulatedTime;
+
+    /**
+     * @param position start value, in degrees
+     * @param velocity start velocity, in degrees per second
+     * @param target   resting value, in degrees
+     */
+    public void start(float position, float velocity, float target) {
+        mPosition = position;
+        mVelocity = velocity;
+        mTarget = target;
+        mAccumulatedTime = 0;
+    }
+
+    /**
+     * Advances the simulation by the given wall time.
+     *
+     * @param elapsedTime time since the previous call, in seconds. Values above 100 ms are clamped
+     *                    so that a long stall does not make the simulation jump.
+     * @return true when the simulation came to rest. The position is then exactly the target.
+     */
+    public boolean advance(float elapsedTime) {
+        mAccumulatedTime += Math.max(0f, Math.min(elapsedTime, MAX_ELAPSED_TIME));
+        while (mAccumulatedTime >= FIXED_TIME_STEP) {
+            mAccumulatedTime -= FIXED_TIME_STEP;
+            step(FIXED_TIME_STEP);
+            if (isAtRest()) {
+                mPosition = mTarget;
+                mVelocity = 0;
+                mAccumulatedTime = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public float getPosition() {
+        return mPosition;
+    }
+
+    public float getVelocity() {
+        return mVelocity;
+    }
+
+    public float getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * Integrates one fixed step of {@code dt} seconds.
+     */
+    protected abstract void step(float dt);
+
+    protected abstract boolean isAtRest();
+}
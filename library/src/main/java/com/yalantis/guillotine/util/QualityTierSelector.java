@@ -0,0 +1,92 @@
+package com.yalantis.guillotine.util;
+
+/**
+ * Picks how rich the guillotine animation can afford to be from the frames the last animations dropped.
+ * <p>
+ * The dropped frame ratio of the last {@link #getWindowSize()} animations is kept in a ring buffer.
+ * Once the buffer is full and the average ratio is above the limit, the selector steps down one tier
+ * and starts collecting again, so a single bad animation (a GC, a busy startup) never changes the tier
+ * on its own. It never steps back up. The class has no Android dependencies.
+ */
+public class QualityTierSelector {
+    /**
+     * Rotation with the configured interpolator (a {@link GuillotineInterpolator} bounce, for example),
+     * the action bar title carried over onto the guillotine and the item choreography.
+     */
+    public static final int TIER_FULL = 0;
+    /**
+     * Rotation only, with a plain accelerate-decelerate interpolator in place of the configured one,
+     * without the title and without the item choreography.
+     */
+    public static final int TIER_SIMPLE_ROTATION = 1;
+    /**
+     * No rotation, the opened guillotine fades in and out with the plain interpolator.
+     */
+    public static final int TIER_CROSS_FADE = 2;
+
+    public static final int DEFAULT_WINDOW_SIZE = 3;
+    public static final float DEFAULT_MAX_DROPPED_FRAME_RATIO = 0.2f;
+
+    private final float[] mDroppedFrameRatios;
+    private final float mMaxDroppedFrameRatio;
+    private int mSampleCount;
+    private int mNextSample;
+    private int mTier = TIER_FULL;
+
+    public QualityTierSelector() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_MAX_DROPPED_FRAME_RATIO);
+    }
+
+    /**
+     * @param windowSize           number of animations the decision is based on
+     * @param maxDroppedFrameRatio highest acceptable share of dropped frames, from 0 to 1
+     */
+    public QualityTierSelector(int windowSize, float maxDroppedFrameRatio) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1");
+        }
+        mDroppedFrameRatios = new float[windowSize];
+        mMaxDroppedFrameRatio = maxDroppedFrameRatio;
+    }
+
+    /**
+     * Records the frames of one finished animation.
+     *
+     * @param frameCount        frames that were drawn
+     * @param droppedFrameCount vsync intervals that passed without a frame
+     * @return the tier the next animations should use
+     */
+    public int onAnimationMeasured(int frameCount, int droppedFrameCount) {
+        int expectedFrameCount = frameCount + droppedFrameCount;
+        if (expectedFrameCount == 0 || mTier == TIER_CROSS_FADE) {
+            return mTier;
+        }
+        mDroppedFrameRatios[mNextSample] = (float) droppedFrameCount / expectedFrameCount;
+        mNextSample = (mNextSample + 1) % mDroppedFrameRatios.length;
+        if (mSampleCount < mDroppedFrameRatios.length) {
+            mSampleCount++;
+        }
+        if (mSampleCount == mDroppedFrameRatios.length && getAverageDroppedFrameRatio() > mMaxDroppedFrameRatio) {
+            mTier++;
+            mSampleCount = 0;
+            mNextSample = 0;
+        }
+        return mTier;
+    }
+
+    public int getTier() {
+        return mTier;
+    }
+
+    public int getWindowSize() {
+        return mDroppedFrameRatios.length;
+    }
+
+    private float getAverageDroppedFrameRatio() {
+        float sum = 0;
+        for (int i = 0; i < mSampleCount; i++) {
+            sum += mDroppedFrameRatios[i];
+        }
+        return sum / mSampleCount;
+    }
+}
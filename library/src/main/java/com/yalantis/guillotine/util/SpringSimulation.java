@@ -0,0 +1,44 @@
+package com.yalantis.guillotine.util;
+
+/**
+ * Damped spring pulling the angle towards the target. A damping ratio below 1 overshoots
+ * the target, 1 is critically damped. The damping ratio must be above 0, an undamped spring
+ * would oscillate forever and never come to rest.
+ */
+public class SpringSimulation extends PhysicsSimulation {
+    public static final float DEFAULT_STIFFNESS = 300f;
+    public static final float DEFAULT_DAMPING_RATIO = 0.6f;
+
+    private static final float REST_DISTANCE = 0.1f;
+    private static final float REST_VELOCITY = 1f;
+
+    private final float mStiffness;
+    private final float mDamping;
+
+    public SpringSimulation() {
+        this(DEFAULT_STIFFNESS, DEFAULT_DAMPING_RATIO);
+    }
+
+    public SpringSimulation(float stiffness, float dampingRatio) {
+        if (stiffness <= 0) {
+            throw new IllegalArgumentException("stiffness must be positive");
+        }
+        if (dampingRatio <= 0) {
+            throw new IllegalArgumentException("dampingRatio must be positive");
+        }
+        this.mStiffness = stiffness;
+        this.mDamping = 2 * dampingRatio * (float) Math.sqrt(stiffness);
+    }
+
+    @Override
+    protected void step(float dt) {
+        float acceleration = -mStiffness * (mPosition - mTarget) - mDamping * mVelocity;
+        mVelocity += acceleration * dt;
+        mPosition += mVelocity * dt;
+    }
+
+    @Override
+    protected boolean isAtRest() {
+        return Math.abs(mPosition - mTarget) < REST_DISTANCE && Math.abs(mVelocity) < REST_VELOCITY;
+    }
+}
@@ -0,0 +1,289 @@
+package com.yalantis.guillotine.animation;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.accessibility.AccessibilityManager;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadows.ShadowAccessibilityManager;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowMessage;
+import org.robolectric.shadows.ShadowMessageQueue;
+import org.robolectric.util.ReflectionHelpers;
+import org.robolectric.util.Scheduler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+
+/**
+ * Runs the main looper on the real {@link MessageQueue} instead of Robolectric's scheduler, whose message
+ * dispatch allocates on every message. Only meant for the tests that count allocations: they {@link #install()}
+ * it before building the screen, let time pass with {@link #runFor(long)} and {@link #uninstall()} it at the end.
+ * The shadows below are registered for every test in robolectric.properties, a test that configures shadows
+ * of its own gets a sandbox of its own, and Robolectric cannot run two of them in the same JVM. Until the
+ * looper is installed they leave everything to Robolectric's shadows.
+ */
+final class DirectMainLooper {
+    //  Thrown instead of blocking when the queue has nothing due, so it carries no stack trace
+    private static final RuntimeException IDLE = new RuntimeException("idle", null, false, false) {
+    };
+
+    private static boolean sIsInstalled;
+
+    private static final MethodHandle NEXT = realMethod(MessageQueue.class, "next");
+    private static final MethodHandle ENQUEUE = realMethod(MessageQueue.class, "enqueueMessage", Message.class, long.class);
+    private static final MethodHandle POST_SYNC_BARRIER = realMethod(MessageQueue.class, "postSyncBarrier");
+    private static final MethodHandle RECYCLE = realMethod(Message.class, "recycle");
+    private static final MethodHandle RECYCLE_UNCHECKED = realMethod(Message.class, "recycleUnchecked");
+    private static final MethodHandle IS_IN_USE = realMethod(Message.class, "isInUse");
+
+    private DirectMainLooper() {
+    }
+
+    static void install() {
+        ShadowSharedAccessibilityManager.sInstance = null;
+        sIsInstalled = true;
+    }
+
+    static void uninstall() {
+        sIsInstalled = false;
+        ShadowSharedAccessibilityManager.sInstance = null;
+        //  The queue is left waiting for its next message, Robolectric's enqueueing would try to wake it up
+        MessageQueue queue = Looper.getMainLooper().getQueue();
+        ReflectionHelpers.setField(queue, "mMessages", null);
+        ReflectionHelpers.setField(queue, "mBlocked", false);
+    }
+
+    /**
+     * Dispatches the messages that are due, then moves the clock on a millisecond at a time, until the given
+     * time has passed. Idle handlers run whenever the queue has nothing due, like on a device.
+     */
+    static void runFor(long millis) {
+        Scheduler scheduler = ShadowApplication.getInstance().getForegroundThreadScheduler();
+        long endTime = scheduler.getCurrentTime() + millis;
+        while (true) {
+            dispatchDueMessages(Looper.myQueue());
+            if (scheduler.getCurrentTime() >= endTime) return;
+            scheduler.advanceBy(1);
+        }
+    }
+
+    private static void dispatchDueMessages(MessageQueue queue) {
+        while (true) {
+            Message message;
+            try {
+                message = (Message) NEXT.invokeExact(queue);
+            } catch (RuntimeException e) {
+                if (e == IDLE) return;
+                throw e;
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+            message.getTarget().dispatchMessage(message);
+            invoke(RECYCLE_UNCHECKED, message);
+        }
+    }
+
+    private static MethodHandle realMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            //  Robolectric keeps the framework code of a shadowed method under this name
+            Method method = type.getDeclaredMethod("$$robo$$" + name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void invoke(MethodHandle method, Message message) {
+        try {
+            method.invokeExact(message);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    /**
+     * Lets messages go through the real queue, where {@link #runFor(long)} picks them up.
+     */
+    @Implements(MessageQueue.class)
+    public static class ShadowDirectMessageQueue extends ShadowMessageQueue {
+        @RealObject
+        private MessageQueue mRealQueue;
+
+        @Implementation
+        public static void nativePollOnce(long ptr, int timeoutMillis) {
+            if (!sIsInstalled) {
+                ShadowMessageQueue.nativePollOnce(ptr, timeoutMillis);
+            } else if (timeoutMillis != 0) {
+                throw IDLE;
+            }
+        }
+
+        @Implementation
+        public static void nativeWake(long ptr) {
+            if (!sIsInstalled) ShadowMessageQueue.nativeWake(ptr);
+        }
+
+        @Implementation
+        @Override
+        public boolean enqueueMessage(Message message, long when) {
+            if (!sIsInstalled) return super.enqueueMessage(message, when);
+            try {
+                return (boolean) ENQUEUE.invokeExact(mRealQueue, message, when);
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+
+        //  Robolectric's choreographer posts its frames as synchronous messages, which a barrier would hold back
+        @Implementation
+        public int postSyncBarrier() {
+            if (sIsInstalled) return 0;
+            try {
+                return (int) POST_SYNC_BARRIER.invokeExact(mRealQueue);
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+
+        @Implementation
+        @Override
+        public void removeSyncBarrier(int token) {
+            if (!sIsInstalled) super.removeSyncBarrier(token);
+        }
+    }
+
+    /**
+     * Recycles messages straight into the framework pool, none of them is scheduled by Robolectric.
+     */
+    @Implements(Message.class)
+    public static class ShadowDirectMessage extends ShadowMessage {
+        @RealObject
+        private Message mRealMessage;
+
+        @Implementation
+        @Override
+        public void recycleUnchecked() {
+            if (!sIsInstalled) {
+                super.recycleUnchecked();
+                return;
+            }
+            invoke(RECYCLE_UNCHECKED, mRealMessage);
+        }
+
+        @Implementation
+        @Override
+        public void recycle() {
+            if (!sIsInstalled) {
+                super.recycle();
+                return;
+            }
+            invoke(RECYCLE, mRealMessage);
+        }
+
+        @Implementation
+        @Override
+        public boolean isInUse() {
+            if (!sIsInstalled) return super.isInUse();
+            try {
+                return (boolean) IS_IN_USE.invokeExact(mRealMessage);
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+    }
+
+    /**
+     * Posts every frame callback with the same runnable, Robolectric wraps it in a new one for every frame.
+     */
+    @Implements(Choreographer.class)
+    public static class ShadowDirectChoreographer extends ShadowChoreographer {
+        private Handler mHandler;
+        private final IdentityHashMap<Choreographer.FrameCallback, Runnable> mFrameRunnables = new IdentityHashMap<>();
+
+        @Implementation
+        @Override
+        public void postCallbackDelayed(int callbackType, Runnable action, Object token, long delayMillis) {
+            if (!sIsInstalled) {
+                super.postCallbackDelayed(callbackType, action, token, delayMillis);
+                return;
+            }
+            getHandler().postDelayed(action, delayMillis);
+        }
+
+        @Implementation
+        @Override
+        public void removeCallbacks(int callbackType, Runnable action, Object token) {
+            if (!sIsInstalled) {
+                super.removeCallbacks(callbackType, action, token);
+                return;
+            }
+            getHandler().removeCallbacks(action, token);
+        }
+
+        @Implementation
+        @Override
+        public void postFrameCallbackDelayed(final Choreographer.FrameCallback callback, long delayMillis) {
+            if (!sIsInstalled) {
+                super.postFrameCallbackDelayed(callback, delayMillis);
+                return;
+            }
+            Runnable frameRunnable = mFrameRunnables.get(callback);
+            if (frameRunnable == null) {
+                frameRunnable = new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.doFrame(getFrameTimeNanos());
+                    }
+                };
+                mFrameRunnables.put(callback, frameRunnable);
+            }
+            getHandler().postAtTime(frameRunnable, callback, SystemClock.uptimeMillis() + delayMillis);
+        }
+
+        @Implementation
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            if (!sIsInstalled) {
+                super.removeFrameCallback(callback);
+                return;
+            }
+            getHandler().removeCallbacksAndMessages(callback);
+        }
+
+        private Handler getHandler() {
+            if (mHandler == null) {
+                mHandler = new Handler(Looper.getMainLooper());
+            }
+            return mHandler;
+        }
+    }
+
+    /**
+     * Hands out one accessibility manager, Robolectric builds a new one, with a new service, on every call.
+     */
+    @Implements(AccessibilityManager.class)
+    public static class ShadowSharedAccessibilityManager extends ShadowAccessibilityManager {
+        private static AccessibilityManager sInstance;
+
+        @Implementation
+        public static AccessibilityManager getInstance(Context context) throws Exception {
+            if (!sIsInstalled) return ShadowAccessibilityManager.getInstance(context);
+            if (sInstance == null) {
+                sInstance = ShadowAccessibilityManager.getInstance(context);
+            }
+            return sInstance;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.View;
+
+import com.yalantis.guillotine.interfaces.GuillotineMetricsListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class FrameMetricsRecorderTest {
+    private static final long MILLI = 1000000L;
+    private static final long FRAME = 16666667L;
+
+    private FrameMetricsRecorder mRecorder;
+    private GuillotineMetrics mMetrics;
+    private int mReportCount;
+    private long mStartTime;
+
+    @Before
+    public void setUp() {
+        //  Frames are fed by hand; a running looper would keep replaying the reposted callback
+        ShadowLooper.pauseMainLooper();
+        //  A detached view has no display, so the recorder falls back to 60 Hz
+        View view = new View(RuntimeEnvironment.application);
+        mRecorder = new FrameMetricsRecorder(new GuillotineMetricsListener() {
+            @Override
+            public void onGuillotineMetrics(GuillotineMetrics metrics) {
+                mMetrics = metrics;
+                mReportCount++;
+            }
+        }, view);
+        mStartTime = AnimationClock.nanoTime();
+    }
+
+    @Test
+    public void evenFramesDropNothing() {
+        mRecorder.start(true, mStartTime);
+        for (int i = 0; i < 10; i++) {
+            mRecorder.doFrame(mStartTime + 4 * MILLI + i * FRAME);
+        }
+        mRecorder.stop(false);
+
+        assertEquals(1, mReportCount);
+        assertTrue(mMetrics.isOpening());
+        assertFalse(mMetrics.isInterrupted());
+        assertEquals(FRAME, mMetrics.getFrameIntervalNanos());
+        assertEquals(10, mMetrics.getFrameCount());
+        assertEquals(0, mMetrics.getDroppedFrameCount());
+        assertEquals(0, mMetrics.getJankyFrameCount());
+        assertEquals(4 * MILLI, mMetrics.getFirstFrameLatencyNanos());
+        assertEquals(FRAME, mMetrics.getMaxFrameIntervalNanos());
+        //  16.7 ms falls into the 16-20 ms bucket
+        assertEquals(9, mMetrics.getHistogramCount(4));
+    }
+
+    @Test
+    public void longFramesCountTheMissedVsyncs() {
+        mRecorder.start(false, mStartTime);
+        mRecorder.doFrame(mStartTime);
+        mRecorder.doFrame(mStartTime + FRAME);
+        //  Three vsync intervals: two frames missed
+        mRecorder.doFrame(mStartTime + 4 * FRAME);
+        //  1.4 intervals rounds to one vsync: nothing missed and under the 1.5 jank threshold
+        mRecorder.doFrame(mStartTime + 4 * FRAME + 14 * FRAME / 10);
+        //  1.6 intervals: one frame missed and janky
+        mRecorder.doFrame(mStartTime + 4 * FRAME + 30 * FRAME / 10);
+        mRecorder.stop(false);
+
+        assertFalse(mMetrics.isOpening());
+        assertEquals(5, mMetrics.getFrameCount());
+        assertEquals(3, mMetrics.getDroppedFrameCount());
+        assertEquals(2, mMetrics.getJankyFrameCount());
+        assertEquals(3 * FRAME, mMetrics.getMaxFrameIntervalNanos());
+        //  50 ms lands in the 48-52 ms bucket
+        assertEquals(1, mMetrics.getHistogramCount(12));
+    }
+
+    @Test
+    public void latencyIsCountedFromTheRequest() {
+        //  open() was called 5 ms before the posted request started the animation
+        mRecorder.start(true, mStartTime - 5 * MILLI);
+        mRecorder.doFrame(mStartTime + 4 * MILLI);
+        mRecorder.stop(false);
+        assertEquals(9 * MILLI, mMetrics.getFirstFrameLatencyNanos());
+    }
+
+    @Test
+    public void restartReportsTheRunningMeasurementAsInterrupted() {
+        mRecorder.start(true, mStartTime);
+        mRecorder.doFrame(mStartTime);
+        mRecorder.start(false, mStartTime);
+
+        assertEquals(1, mReportCount);
+        mRecorder.doFrame(mStartTime + FRAME);
+        mRecorder.stop(false);
+        assertEquals(2, mReportCount);
+        assertFalse(mMetrics.isOpening());
+        assertEquals(1, mMetrics.getFrameCount());
+    }
+
+    @Test
+    public void interruptedMeasurementIsFlagged() {
+        mRecorder.start(true, mStartTime);
+        mRecorder.doFrame(mStartTime);
+        mRecorder.stop(true);
+        GuillotineMetrics metrics = mMetrics;
+
+        assertTrue(metrics.isInterrupted());
+        mRecorder.stop(false);
+        assertEquals(1, mReportCount);
+        assertSame(metrics, mMetrics);
+    }
+
+    @Test
+    public void framesAfterStopAreIgnored() {
+        mRecorder.start(true, mStartTime);
+        mRecorder.stop(false);
+        mRecorder.doFrame(mStartTime + FRAME);
+        assertEquals(0, mMetrics.getFrameCount());
+        assertEquals(-1, mMetrics.getFirstFrameLatencyNanos());
+    }
+
+    @Test
+    public void nothingIsReportedWithoutAStart() {
+        mRecorder.stop(false);
+        assertNull(mMetrics);
+        assertEquals(0, mReportCount);
+    }
+}
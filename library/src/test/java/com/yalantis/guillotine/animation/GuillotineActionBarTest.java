@@ -0,0 +1,92 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineActionBarTest {
+    private GuillotineTestScreen mScreen;
+    private View mGoneChild;
+    private View mInvisibleChild;
+    private GuillotineAnimation mAnimation;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mGoneChild = new View(mScreen.activity);
+        mGoneChild.setVisibility(View.GONE);
+        mScreen.actionBar.addView(mGoneChild);
+        mInvisibleChild = new View(mScreen.activity);
+        mInvisibleChild.setVisibility(View.INVISIBLE);
+        mScreen.actionBar.addView(mInvisibleChild);
+        mAnimation = mScreen.builder().build();
+        mAnimation.prewarm();
+        runFor(0);
+    }
+
+    @Test
+    public void draggedGuillotineShowsTheActionBarBackgroundOnly() {
+        int rootChildCount = mScreen.root.getChildCount();
+        int actionBarChildCount = mScreen.actionBar.getChildCount();
+        long downTime = now();
+        drag(downTime, MotionEvent.ACTION_DOWN, 0);
+        drag(downTime, MotionEvent.ACTION_MOVE, 50);
+        assertTrue(mAnimation.getRotation() > -90f);
+
+        assertEquals(View.VISIBLE, mScreen.actionBar.getVisibility());
+        assertEquals(View.INVISIBLE, mScreen.openingView.getVisibility());
+        assertEquals(View.INVISIBLE, mGoneChild.getVisibility());
+        assertEquals(View.INVISIBLE, mInvisibleChild.getVisibility());
+        assertEquals(rootChildCount, mScreen.root.getChildCount());
+        assertEquals(actionBarChildCount, mScreen.actionBar.getChildCount());
+
+        drag(downTime, MotionEvent.ACTION_CANCEL, 50);
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertChildVisibilitiesRestored();
+    }
+
+    @Test
+    public void childVisibilitiesAreRestoredAtEitherRest() {
+        int rootChildCount = mScreen.root.getChildCount();
+        mAnimation.open();
+        runFor(1000);
+        assertFalse(mAnimation.isClosed());
+        assertEquals(View.INVISIBLE, mScreen.actionBar.getVisibility());
+        assertChildVisibilitiesRestored();
+
+        mAnimation.close();
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertEquals(View.VISIBLE, mScreen.actionBar.getVisibility());
+        assertChildVisibilitiesRestored();
+        assertEquals(rootChildCount, mScreen.root.getChildCount());
+    }
+
+    private void assertChildVisibilitiesRestored() {
+        assertEquals(View.VISIBLE, mScreen.openingView.getVisibility());
+        assertEquals(View.GONE, mGoneChild.getVisibility());
+        assertEquals(View.INVISIBLE, mInvisibleChild.getVisibility());
+    }
+
+    private void drag(long downTime, int action, float distance) {
+        MotionEvent event = obtainEvent(downTime, now(), action, 300, BAR_HEIGHT / 2f + distance);
+        mScreen.actionBar.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
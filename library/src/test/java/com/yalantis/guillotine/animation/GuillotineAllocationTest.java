@@ -0,0 +1,105 @@
+package com.yalantis.guillotine.animation;
+
+import android.animation.ValueAnimator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static com.yalantis.guillotine.animation.DirectMainLooper.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the bytes the main thread allocates while the guillotine goes back and forth, once everything is warm.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineAllocationTest {
+    private static final int WARM_UP_CYCLE_COUNT = 200;
+    private static final int CYCLE_COUNT = 50;
+    //  The JIT recompiles now and then in the middle of a round, the quietest round is the one that counts
+    private static final int ROUND_COUNT = 10;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Before
+    public void setUp() {
+        DirectMainLooper.install();
+    }
+
+    @After
+    public void tearDown() {
+        DirectMainLooper.uninstall();
+    }
+
+    @Test
+    public void openAndCloseAllocateNothingOnceWarm() {
+        GuillotineTestScreen screen = new GuillotineTestScreen();
+        GuillotineTestScreen.CountingListener listener = new GuillotineTestScreen.CountingListener();
+        //  Stays laid out at rest. In the other modes the guillotine is GONE when closed, and the layout pass of
+        //  every opening and closing goes through Robolectric's view shadows, which allocate on their own
+        final GuillotineAnimation animation = screen.builder()
+                .setRenderMode(GuillotineAnimation.RENDER_MODE_SNAPSHOT)
+                .setGuillotineListener(listener)
+                .build();
+        final ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+            }
+        });
+
+        long guillotineBytes = leastAllocatedBytes(new Runnable() {
+            @Override
+            public void run() {
+                animation.open();
+                runFor(1000);
+                animation.close();
+                runFor(1000);
+            }
+        });
+        //  The framework's AnimationHandler allocates a commit callback on the first frame of every animator,
+        //  so the guillotine is measured against two plain animators that are started the same way
+        long animatorBytes = leastAllocatedBytes(new Runnable() {
+            @Override
+            public void run() {
+                animator.start();
+                runFor(1000);
+                animator.start();
+                runFor(1000);
+            }
+        });
+
+        int cycleCount = WARM_UP_CYCLE_COUNT + ROUND_COUNT * CYCLE_COUNT;
+        assertEquals(cycleCount, listener.mOpenedCount);
+        assertEquals(cycleCount, listener.mClosedCount);
+        assertTrue(animation.isClosed());
+        assertEquals(0, guillotineBytes - animatorBytes);
+    }
+
+    private static long leastAllocatedBytes(Runnable cycle) {
+        for (int i = 0; i < WARM_UP_CYCLE_COUNT; i++) {
+            cycle.run();
+        }
+        long leastBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUND_COUNT; round++) {
+            long bytes = allocatedBytes();
+            for (int i = 0; i < CYCLE_COUNT; i++) {
+                cycle.run();
+            }
+            leastBytes = Math.min(leastBytes, allocatedBytes() - bytes);
+        }
+        return leastBytes;
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
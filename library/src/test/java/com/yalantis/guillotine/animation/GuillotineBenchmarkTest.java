@@ -0,0 +1,198 @@
+package com.yalantis.guillotine.animation;
+
+import com.yalantis.guillotine.interfaces.GuillotineListener;
+import com.yalantis.guillotine.interfaces.GuillotineMetricsListener;
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs open, close and reverse scenarios headless and reports what every one of them costs: frames,
+ * measure and layout passes, the order of the callbacks, the frame metrics and the CPU time per frame.
+ * Robolectric animates on a frame clock of its own, so the frame counts do not depend on the machine.
+ * It does not draw, so drawing is not covered.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineBenchmarkTest {
+    private final ArrayList<String> mEvents = new ArrayList<>();
+    private final ArrayList<GuillotineMetrics> mMetrics = new ArrayList<>();
+    private final ThreadMXBean mThreadBean = ManagementFactory.getThreadMXBean();
+    private GuillotineTestScreen mScreen;
+    private GuillotineAnimation mAnimation;
+    private int mFrameCount;
+    private float mReverseAtProgress = -1;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mAnimation = mScreen.builder()
+                .setOpeningDuration(400)
+                .setClosingDuration(500)
+                .setGuillotineListener(new GuillotineListener() {
+                    @Override
+                    public void onGuillotineWillOpen() {
+                        mEvents.add("willOpen");
+                    }
+
+                    @Override
+                    public void onGuillotineWillClose() {
+                        mEvents.add("willClose");
+                    }
+
+                    @Override
+                    public void onGuillotineOpened() {
+                        mEvents.add("opened");
+                    }
+
+                    @Override
+                    public void onGuillotineClosed() {
+                        mEvents.add("closed");
+                    }
+                })
+                .addProgressListener(new GuillotineProgressListener() {
+                    @Override
+                    public void onGuillotineProgress(float progress, float rotation) {
+                        mFrameCount++;
+                        if (mReverseAtProgress >= 0 && progress >= mReverseAtProgress) {
+                            mReverseAtProgress = -1;
+                            mAnimation.close();
+                        }
+                    }
+                })
+                .setMetricsListener(new GuillotineMetricsListener() {
+                    @Override
+                    public void onGuillotineMetrics(GuillotineMetrics metrics) {
+                        System.out.println(String.format("  %s metrics: %d frames, %d dropped, %d janky%s",
+                                metrics.isOpening() ? "opening" : "closing", metrics.getFrameCount(),
+                                metrics.getDroppedFrameCount(), metrics.getJankyFrameCount(),
+                                metrics.isInterrupted() ? ", interrupted" : ""));
+                        mMetrics.add(copy(metrics));
+                    }
+                })
+                .build();
+        //  Creates and lays out the guillotine, so that the scenarios only measure the animations
+        mAnimation.prewarm();
+        runFor(0);
+    }
+
+    @Test
+    public void open() {
+        Result result = run("open", true);
+
+        assertEquals(Arrays.asList("willOpen", "opened"), mEvents);
+        assertTrue(result.mFrameCount > 1);
+        assertEquals(0, result.mMeasureCount);
+        assertEquals(0, result.mLayoutCount);
+        assertEquals(1, mMetrics.size());
+        assertMetrics(mMetrics.get(0), true, false, result.mFrameCount);
+        assertFalse(mAnimation.isClosed());
+    }
+
+    @Test
+    public void close() {
+        run("open", true);
+        mEvents.clear();
+        mMetrics.clear();
+        Result result = run("close", false);
+
+        assertEquals(Arrays.asList("willClose", "closed"), mEvents);
+        assertTrue(result.mFrameCount > 1);
+        assertEquals(0, result.mMeasureCount);
+        assertEquals(0, result.mLayoutCount);
+        assertEquals(1, mMetrics.size());
+        assertMetrics(mMetrics.get(0), false, false, result.mFrameCount);
+        assertTrue(mAnimation.isClosed());
+    }
+
+    @Test
+    public void reverse() {
+        mReverseAtProgress = 0.5f;
+        Result result = run("reverse", true);
+
+        //  The opening never finishes, the closing takes over from where it was
+        assertEquals(Arrays.asList("willOpen", "willClose", "closed"), mEvents);
+        assertEquals(0, result.mMeasureCount);
+        assertEquals(0, result.mLayoutCount);
+        assertEquals(2, mMetrics.size());
+        assertTrue(mMetrics.get(0).isOpening());
+        assertTrue(mMetrics.get(0).isInterrupted());
+        assertMetrics(mMetrics.get(1), false, false, result.mFrameCount - mMetrics.get(0).getFrameCount());
+        assertTrue(mAnimation.isClosed());
+    }
+
+    private Result run(String name, boolean isOpen) {
+        int frameCount = mFrameCount;
+        int measureCount = mScreen.guillotineView.mMeasureCount;
+        int layoutCount = mScreen.guillotineView.mLayoutCount;
+        long cpuTime = mThreadBean.getCurrentThreadCpuTime();
+        if (isOpen) {
+            mAnimation.open();
+        } else {
+            mAnimation.close();
+        }
+        runFor(0);
+        Result result = new Result();
+        result.mCpuTimeNanos = mThreadBean.getCurrentThreadCpuTime() - cpuTime;
+        result.mFrameCount = mFrameCount - frameCount;
+        result.mMeasureCount = mScreen.guillotineView.mMeasureCount - measureCount;
+        result.mLayoutCount = mScreen.guillotineView.mLayoutCount - layoutCount;
+        System.out.println(String.format("%s: %d frames, %d measures, %d layouts, %.3f ms CPU per frame",
+                name, result.mFrameCount, result.mMeasureCount, result.mLayoutCount,
+                result.mCpuTimeNanos / 1e6 / Math.max(1, result.mFrameCount)));
+        return result;
+    }
+
+    /**
+     * Robolectric moves its frame clock on every read, not once per frame, so the frame intervals the recorder
+     * sees are not real ones and dropped frames are only reported, see {@link FrameMetricsRecorderTest} for those.
+     */
+    private static void assertMetrics(GuillotineMetrics metrics, boolean isOpening, boolean isInterrupted, int frameCount) {
+        assertEquals(isOpening, metrics.isOpening());
+        assertEquals(isInterrupted, metrics.isInterrupted());
+        //  The recorder watches the same frames the animator draws, give or take the first and the last one
+        assertEquals(frameCount, metrics.getFrameCount(), 2);
+        int intervalCount = 0;
+        for (int i = 0; i < GuillotineMetrics.HISTOGRAM_BUCKET_COUNT; i++) {
+            intervalCount += metrics.getHistogramCount(i);
+        }
+        assertEquals(metrics.getFrameCount() - 1, intervalCount);
+        assertTrue(metrics.getFirstFrameLatencyNanos() >= 0);
+        assertTrue(metrics.getMaxFrameIntervalNanos() > 0);
+    }
+
+    private static GuillotineMetrics copy(GuillotineMetrics metrics) {
+        GuillotineMetrics copy = new GuillotineMetrics();
+        copy.isOpening = metrics.isOpening;
+        copy.isInterrupted = metrics.isInterrupted;
+        copy.mFrameCount = metrics.mFrameCount;
+        copy.mDroppedFrameCount = metrics.mDroppedFrameCount;
+        copy.mJankyFrameCount = metrics.mJankyFrameCount;
+        copy.mFrameIntervalNanos = metrics.mFrameIntervalNanos;
+        copy.mMaxFrameIntervalNanos = metrics.mMaxFrameIntervalNanos;
+        copy.mFirstFrameLatencyNanos = metrics.mFirstFrameLatencyNanos;
+        System.arraycopy(metrics.mHistogram, 0, copy.mHistogram, 0, copy.mHistogram.length);
+        return copy;
+    }
+
+    private static class Result {
+        int mFrameCount;
+        int mMeasureCount;
+        int mLayoutCount;
+        long mCpuTimeNanos;
+    }
+}
@@ -0,0 +1,220 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.MotionEvent;
+
+import com.yalantis.guillotine.interfaces.GuillotineCommandCallback;
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineCommandTest {
+    private static final int STRESS_REQUEST_COUNT = 5000;
+    private static final float DRAG_DISTANCE = 20;
+    private static final long START_DELAY = 250;
+
+    /**
+     * Counts the answers of one request.
+     */
+    private static class CountingCallback implements GuillotineCommandCallback {
+        int mAppliedCount;
+        int mFailedCount;
+
+        @Override
+        public void onGuillotineCommandCompleted(boolean isApplied) {
+            if (isApplied) mAppliedCount++;
+            else mFailedCount++;
+        }
+
+        int getAnswerCount() {
+            return mAppliedCount + mFailedCount;
+        }
+    }
+
+    private GuillotineTestScreen mScreen;
+    private GuillotineCoordinator mCoordinator;
+    private GuillotineAnimation mAnimation;
+    private GuillotineTestScreen.CountingListener mListener;
+    private long mDownTime;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mCoordinator = new GuillotineCoordinator();
+        mListener = new GuillotineTestScreen.CountingListener();
+        mAnimation = mScreen.builder()
+                .setCoordinator(mCoordinator)
+                .setGuillotineListener(mListener)
+                .build();
+    }
+
+    @Test
+    public void rapidRequestsAreAllAnsweredAndEndOnTheLastOne() {
+        final Random random = new Random(42);
+        final CountingCallback[] callbacks = new CountingCallback[STRESS_REQUEST_COUNT];
+        final boolean[] isOpenRequests = new boolean[STRESS_REQUEST_COUNT];
+        final int[] requestCount = new int[1];
+        //  Requests land from inside the animation frames too, so that they reverse running animations
+        mAnimation.addProgressListener(new GuillotineProgressListener() {
+            @Override
+            public void onGuillotineProgress(float progress, float rotation) {
+                if (requestCount[0] < STRESS_REQUEST_COUNT && random.nextInt(4) == 0) {
+                    request(random.nextBoolean(), requestCount, callbacks, isOpenRequests);
+                }
+            }
+        });
+        int skippedBurstCount = 0;
+        while (requestCount[0] < STRESS_REQUEST_COUNT) {
+            //  Animations end within runFor(), so every burst starts from rest
+            boolean isOpenedAtRest = !mAnimation.isClosed();
+            int startCount = mListener.mWillOpenCount + mListener.mWillCloseCount;
+            int burst = 1 + random.nextInt(3);
+            for (int i = 0; i < burst && requestCount[0] < STRESS_REQUEST_COUNT; i++) {
+                request(random.nextBoolean(), requestCount, callbacks, isOpenRequests);
+            }
+            boolean isOpenedAtTheEndOfTheBurst = isOpenRequests[requestCount[0] - 1];
+            runFor(random.nextInt(3) == 0 ? 1000 : 0);
+            //  A burst that ends on the state the guillotine rests in is coalesced, nothing is animated
+            if (isOpenedAtTheEndOfTheBurst == isOpenedAtRest) {
+                assertEquals(startCount, mListener.mWillOpenCount + mListener.mWillCloseCount);
+                skippedBurstCount++;
+            } else {
+                assertTrue(mListener.mWillOpenCount + mListener.mWillCloseCount > startCount);
+            }
+        }
+        assertTrue(skippedBurstCount > 0);
+        runFor(1000);
+
+        for (CountingCallback callback : callbacks) {
+            assertEquals(1, callback.getAnswerCount());
+        }
+        boolean isOpenedAtTheEnd = isOpenRequests[STRESS_REQUEST_COUNT - 1];
+        assertEquals(1, callbacks[STRESS_REQUEST_COUNT - 1].mAppliedCount);
+        assertEquals(!isOpenedAtTheEnd, mAnimation.isClosed());
+    }
+
+    @Test
+    public void tapsDoNotWaitForTheStartDelay() {
+        GuillotineTestScreen screen = new GuillotineTestScreen();
+        GuillotineTestScreen.CountingListener listener = new GuillotineTestScreen.CountingListener();
+        GuillotineAnimation animation = screen.builder()
+                .setStartDelay(START_DELAY)
+                .setGuillotineListener(listener)
+                .build();
+
+        screen.openingView.performClick();
+        runFor(1000);
+        assertEquals(1, listener.mOpenedCount);
+        assertEquals(0f, animation.getRotation(), 0f);
+
+        screen.closingView.performClick();
+        runFor(1000);
+        assertEquals(1, listener.mClosedCount);
+        assertTrue(animation.isClosed());
+    }
+
+    @Test
+    public void requestMadeWhileDraggingRunsOnRelease() {
+        dragDown(DRAG_DISTANCE);
+        float rotation = mAnimation.getRotation();
+        CountingCallback callback = new CountingCallback();
+        mAnimation.open(callback);
+        runFor(0);
+        assertEquals(rotation, mAnimation.getRotation(), 0f);
+        assertEquals(0, callback.getAnswerCount());
+
+        //  A short, slow drag alone settles closed
+        release();
+        runFor(1000);
+        assertFalse(mAnimation.isClosed());
+        assertEquals(1, callback.mAppliedCount);
+    }
+
+    @Test
+    public void snapClosedFailsAPendingOpen() {
+        CountingCallback callback = new CountingCallback();
+        mAnimation.open(callback);
+        mCoordinator.closeAll();
+        assertEquals(1, callback.mFailedCount);
+
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertEquals(1, callback.getAnswerCount());
+    }
+
+    @Test
+    public void snapClosedFailsAnOpenWaitingForTheDrag() {
+        dragDown(DRAG_DISTANCE);
+        CountingCallback callback = new CountingCallback();
+        mAnimation.open(callback);
+        runFor(0);
+        mCoordinator.closeAll();
+        assertEquals(1, callback.mFailedCount);
+
+        release();
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertEquals(1, callback.getAnswerCount());
+    }
+
+    @Test
+    public void snapClosedAppliesAPendingClose() {
+        mAnimation.open();
+        runFor(1000);
+        CountingCallback callback = new CountingCallback();
+        mAnimation.close(callback);
+        mCoordinator.closeAll();
+        assertEquals(1, callback.mAppliedCount);
+
+        runFor(1000);
+        assertEquals(1, callback.getAnswerCount());
+    }
+
+    private void request(boolean isOpen, int[] requestCount, CountingCallback[] callbacks, boolean[] isOpenRequests) {
+        int index = requestCount[0]++;
+        callbacks[index] = new CountingCallback();
+        isOpenRequests[index] = isOpen;
+        if (isOpen) mAnimation.open(callbacks[index]);
+        else mAnimation.close(callbacks[index]);
+    }
+
+    private void dragDown(float distance) {
+        mDownTime = now();
+        dispatch(MotionEvent.ACTION_DOWN, 0, 0);
+        dispatch(MotionEvent.ACTION_MOVE, 10, distance / 2);
+        dispatch(MotionEvent.ACTION_MOVE, 20, distance);
+    }
+
+    /**
+     * Lets go after holding still, so that the release is not a fling.
+     */
+    private void release() {
+        dispatch(MotionEvent.ACTION_MOVE, 400, DRAG_DISTANCE);
+        dispatch(MotionEvent.ACTION_MOVE, 480, DRAG_DISTANCE);
+        dispatch(MotionEvent.ACTION_UP, 500, DRAG_DISTANCE);
+    }
+
+    private void dispatch(int action, long time, float distance) {
+        MotionEvent event = obtainEvent(mDownTime, mDownTime + time, action, 200, BAR_HEIGHT / 2f + distance);
+        try {
+            mScreen.actionBar.dispatchTouchEvent(event);
+        } finally {
+            event.recycle();
+        }
+    }
+}
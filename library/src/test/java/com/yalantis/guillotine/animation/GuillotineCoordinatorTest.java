@@ -0,0 +1,62 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineCoordinatorTest {
+    private GuillotineCoordinator mCoordinator;
+    private GuillotineTestScreen mSecondScreen;
+    private GuillotineAnimation mFirst;
+    private GuillotineAnimation mSecond;
+
+    @Before
+    public void setUp() {
+        mCoordinator = new GuillotineCoordinator();
+        mSecondScreen = new GuillotineTestScreen();
+        mFirst = new GuillotineTestScreen().builder().setCoordinator(mCoordinator).build();
+        mSecond = mSecondScreen.builder().setCoordinator(mCoordinator).build();
+        assertEquals(2, mCoordinator.getRegisteredCount());
+    }
+
+    @Test
+    public void openingOneClosesTheOther() {
+        mFirst.open();
+        runFor(1000);
+        mSecond.open();
+        runFor(1000);
+        assertTrue(mFirst.isClosed());
+        assertFalse(mSecond.isClosed());
+    }
+
+    @Test
+    public void restoringOpenedClosesTheOther() {
+        mFirst.open();
+        runFor(1000);
+        mSecond.onRestoreInstanceState(new GuillotineAnimation.SavedState(true));
+        assertTrue(mFirst.isClosed());
+        assertFalse(mSecond.isClosed());
+    }
+
+    @Test
+    public void detachedScreenLeavesTheOtherOpened() {
+        mFirst.open();
+        runFor(1000);
+        mSecond.open();
+        ((ViewGroup) mSecondScreen.root.getParent()).removeView(mSecondScreen.root);
+        assertFalse(mSecond.isClosed());
+        assertFalse(mFirst.isClosed());
+        assertEquals(0f, mFirst.getRotation(), 0f);
+    }
+}
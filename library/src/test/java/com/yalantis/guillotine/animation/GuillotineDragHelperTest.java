@@ -0,0 +1,119 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineDragHelperTest {
+    private static final float START_X = 200;
+    private static final float START_Y = BAR_HEIGHT / 2f;
+
+    private GuillotineTestScreen mScreen;
+    private GuillotineAnimation mAnimation;
+    private long mDownTime;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mAnimation = mScreen.builder().build();
+    }
+
+    @Test
+    public void ignoresMovesWithinTheTouchSlop() {
+        assertTrue(touch(mScreen.actionBar, MotionEvent.ACTION_DOWN, 0, START_X, START_Y));
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, 10, START_X, START_Y + 4);
+        assertNull(mAnimation.getGuillotineView());
+
+        //  Mostly sideways, so not an opening gesture either
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, 20, START_X + 40, START_Y + 20);
+        assertNull(mAnimation.getGuillotineView());
+        assertFalse(touch(mScreen.actionBar, MotionEvent.ACTION_UP, 30, START_X + 40, START_Y + 20));
+        assertTrue(mAnimation.isClosed());
+    }
+
+    @Test
+    public void draggingPastTheSlopCreatesAndLaysOutTheGuillotine() {
+        touch(mScreen.actionBar, MotionEvent.ACTION_DOWN, 0, START_X, START_Y);
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, 10, START_X, START_Y + 20);
+
+        View guillotineView = mAnimation.getGuillotineView();
+        assertTrue(guillotineView.isLaidOut());
+        assertEquals(mScreen.closingView.getLeft() + BAR_HEIGHT / 2, guillotineView.getPivotX(), 0f);
+        assertEquals(mScreen.closingView.getTop() + BAR_HEIGHT / 2, guillotineView.getPivotY(), 0f);
+        assertEquals(View.VISIBLE, guillotineView.getVisibility());
+
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, 20, START_X, START_Y + 120);
+        float rotation = mAnimation.getRotation();
+        assertTrue("rotation " + rotation, rotation > -80f && rotation < -40f);
+    }
+
+    @Test
+    public void flingOpensFromBelowHalfway() {
+        dragDown(10);
+        assertTrue(mAnimation.getRotation() < -45f);
+        touch(mScreen.actionBar, MotionEvent.ACTION_UP, 35, START_X, START_Y + 130);
+
+        runFor(1000);
+        assertFalse(mAnimation.isClosed());
+        assertEquals(0f, mAnimation.getRotation(), 0f);
+    }
+
+    @Test
+    public void slowReleaseSettlesToTheNearestState() {
+        dragDown(1000);
+        touch(mScreen.actionBar, MotionEvent.ACTION_UP, 4000, START_X, START_Y + 130);
+
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertEquals(View.GONE, mAnimation.getGuillotineView().getVisibility());
+    }
+
+    @Test
+    public void closingDragOnlyStartsOnTheLeftEdge() {
+        mAnimation.onRestoreInstanceState(new GuillotineAnimation.SavedState(true));
+        View guillotineView = mAnimation.getGuillotineView();
+
+        assertFalse(touch(guillotineView, MotionEvent.ACTION_DOWN, 0, 200, 400));
+        assertTrue(touch(guillotineView, MotionEvent.ACTION_DOWN, 0, 10, 400));
+        touch(guillotineView, MotionEvent.ACTION_MOVE, 10, 60, 400);
+        assertTrue(mAnimation.getRotation() < 0f);
+    }
+
+    /**
+     * Drags the guillotine about 37 degrees open, with the given time between the moves.
+     */
+    private void dragDown(long step) {
+        touch(mScreen.actionBar, MotionEvent.ACTION_DOWN, 0, START_X, START_Y);
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, step, START_X, START_Y + 12);
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, 2 * step, START_X, START_Y + 50);
+        touch(mScreen.actionBar, MotionEvent.ACTION_MOVE, 3 * step, START_X, START_Y + 110);
+    }
+
+    private boolean touch(View view, int action, long time, float x, float y) {
+        if (action == MotionEvent.ACTION_DOWN) {
+            mDownTime = now();
+        }
+        MotionEvent event = obtainEvent(mDownTime, mDownTime + time, action, x, y);
+        try {
+            return view.dispatchTouchEvent(event);
+        } finally {
+            event.recycle();
+        }
+    }
+}
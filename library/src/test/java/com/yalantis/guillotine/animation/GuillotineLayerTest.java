@@ -0,0 +1,160 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The hardware layer a render mode puts the guillotine on while it moves, and the layer type it gets back at rest.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineLayerTest {
+    private GuillotineTestScreen mScreen;
+    private GuillotineAnimation mAnimation;
+    private int mFrameCount;
+    private int mHardwareFrameCount;
+    private float mReverseAtProgress = -1;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+    }
+
+    @Test
+    public void hardwareLayerModeMovesOnALayer() {
+        build(GuillotineAnimation.RENDER_MODE_HARDWARE_LAYER);
+        mAnimation.open();
+        runFor(1000);
+        assertMovedOnALayerAndRestored(View.LAYER_TYPE_NONE);
+
+        mAnimation.close();
+        runFor(1000);
+        assertMovedOnALayerAndRestored(View.LAYER_TYPE_NONE);
+    }
+
+    @Test
+    public void viewPropertyAnimatorModeMovesOnALayer() {
+        build(GuillotineAnimation.RENDER_MODE_VIEW_PROPERTY_ANIMATOR);
+        mAnimation.open();
+        runFor(1000);
+        assertMovedOnALayerAndRestored(View.LAYER_TYPE_NONE);
+
+        mAnimation.close();
+        runFor(1000);
+        assertMovedOnALayerAndRestored(View.LAYER_TYPE_NONE);
+    }
+
+    @Test
+    public void defaultModeStaysOffLayers() {
+        build(GuillotineAnimation.RENDER_MODE_DEFAULT);
+        mAnimation.open();
+        runFor(1000);
+        assertTrue(mFrameCount > 0);
+        assertEquals(0, mHardwareFrameCount);
+    }
+
+    @Test
+    public void previousLayerTypeComesBack() {
+        build(GuillotineAnimation.RENDER_MODE_HARDWARE_LAYER);
+        mAnimation.open();
+        runFor(1000);
+        mAnimation.close();
+        runFor(1000);
+        mScreen.guillotineView.setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        resetFrames();
+
+        mAnimation.open();
+        runFor(1000);
+        assertMovedOnALayerAndRestored(View.LAYER_TYPE_SOFTWARE);
+    }
+
+    @Test
+    public void reversalRestoresTheLayerType() {
+        build(GuillotineAnimation.RENDER_MODE_HARDWARE_LAYER);
+        mReverseAtProgress = 0.5f;
+        mAnimation.open();
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertMovedOnALayerAndRestored(View.LAYER_TYPE_NONE);
+    }
+
+    @Test
+    public void cancelledDragRestoresTheLayerType() {
+        build(GuillotineAnimation.RENDER_MODE_HARDWARE_LAYER);
+        long downTime = now();
+        dispatch(downTime, 0, MotionEvent.ACTION_DOWN, 0);
+        dispatch(downTime, 10, MotionEvent.ACTION_MOVE, 20);
+        dispatch(downTime, 20, MotionEvent.ACTION_MOVE, 60);
+        assertEquals(View.LAYER_TYPE_HARDWARE, mScreen.guillotineView.getLayerType());
+
+        dispatch(downTime, 30, MotionEvent.ACTION_CANCEL, 60);
+        runFor(1000);
+        assertEquals(View.LAYER_TYPE_NONE, mScreen.guillotineView.getLayerType());
+    }
+
+    @Test
+    public void releaseRestoresTheLayerType() {
+        build(GuillotineAnimation.RENDER_MODE_HARDWARE_LAYER);
+        mAnimation.open();
+        runFor(0);
+        mAnimation.close();
+        mAnimation.release();
+        assertEquals(View.LAYER_TYPE_NONE, mScreen.guillotineView.getLayerType());
+    }
+
+    private void build(int renderMode) {
+        mAnimation = mScreen.builder()
+                .setRenderMode(renderMode)
+                .addProgressListener(new GuillotineProgressListener() {
+                    @Override
+                    public void onGuillotineProgress(float progress, float rotation) {
+                        mFrameCount++;
+                        if (mScreen.guillotineView.getLayerType() == View.LAYER_TYPE_HARDWARE) {
+                            mHardwareFrameCount++;
+                        }
+                        if (mReverseAtProgress >= 0 && progress >= mReverseAtProgress) {
+                            mReverseAtProgress = -1;
+                            mAnimation.close();
+                        }
+                    }
+                })
+                .build();
+    }
+
+    private void assertMovedOnALayerAndRestored(int restingLayerType) {
+        assertTrue(mFrameCount > 0);
+        //  The frame that lands at rest is reported before the layer is taken down
+        assertEquals(mFrameCount, mHardwareFrameCount);
+        assertEquals(restingLayerType, mScreen.guillotineView.getLayerType());
+        resetFrames();
+    }
+
+    private void resetFrames() {
+        mFrameCount = 0;
+        mHardwareFrameCount = 0;
+    }
+
+    private void dispatch(long downTime, long time, int action, float distance) {
+        MotionEvent event = obtainEvent(downTime, downTime + time, action, 200, BAR_HEIGHT / 2f + distance);
+        try {
+            mScreen.actionBar.dispatchTouchEvent(event);
+        } finally {
+            event.recycle();
+        }
+    }
+}
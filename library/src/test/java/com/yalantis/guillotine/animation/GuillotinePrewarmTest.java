@@ -0,0 +1,80 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotinePrewarmTest {
+    private GuillotineTestScreen mScreen;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+    }
+
+    @Test
+    public void laysOutTheClosedGuillotine() {
+        GuillotineAnimation animation = mScreen.builder().build();
+        animation.prewarm();
+
+        View guillotineView = animation.getGuillotineView();
+        assertTrue(guillotineView.isLaidOut());
+        assertEquals(BAR_HEIGHT / 2, guillotineView.getPivotX(), 0f);
+        assertEquals(BAR_HEIGHT / 2, guillotineView.getPivotY(), 0f);
+        assertEquals(-90f, guillotineView.getRotation(), 0f);
+        assertTrue(animation.isClosed());
+    }
+
+    @Test
+    public void firstOpeningRunsFromThePrewarmedState() {
+        GuillotineTestScreen.CountingListener listener = new GuillotineTestScreen.CountingListener();
+        GuillotineAnimation animation = mScreen.builder()
+                .setRenderMode(GuillotineAnimation.RENDER_MODE_HARDWARE_LAYER)
+                .setGuillotineListener(listener)
+                .build();
+        animation.prewarm();
+
+        animation.open();
+        runFor(1000);
+        assertEquals(1, listener.mOpenedCount);
+        assertEquals(0f, animation.getRotation(), 0f);
+    }
+
+    @Test
+    public void prewarmedFirstOpeningSkipsTheMeasureAndLayoutPasses() {
+        GuillotineAnimation coldAnimation = mScreen.builder().build();
+        coldAnimation.open();
+        runFor(1000);
+        GuillotineTestScreen.CountingFrameLayout coldView = mScreen.guillotineView;
+        assertFalse(coldAnimation.isClosed());
+
+        GuillotineTestScreen prewarmedScreen = new GuillotineTestScreen();
+        GuillotineAnimation prewarmedAnimation = prewarmedScreen.builder().build();
+        prewarmedAnimation.prewarm();
+        //  Like the idle prewarm, which runs well before the first tap: the screen settles in between
+        runFor(0);
+        GuillotineTestScreen.CountingFrameLayout prewarmedView = prewarmedScreen.guillotineView;
+        int measureCount = prewarmedView.mMeasureCount;
+        int layoutCount = prewarmedView.mLayoutCount;
+        prewarmedAnimation.open();
+        runFor(1000);
+        assertFalse(prewarmedAnimation.isClosed());
+
+        assertTrue(coldView.mMeasureCount > 0);
+        assertTrue(coldView.mLayoutCount > 0);
+        assertEquals(0, prewarmedView.mMeasureCount - measureCount);
+        assertEquals(0, prewarmedView.mLayoutCount - layoutCount);
+    }
+}
@@ -0,0 +1,65 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.animation.OvershootInterpolator;
+
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+import com.yalantis.guillotine.interfaces.GuillotineQualityListener;
+import com.yalantis.guillotine.util.QualityTierSelector;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineQualityTierTest {
+    private GuillotineAnimation mAnimation;
+    private float mMinProgress;
+    private float mMaxProgress;
+    private int mChangedTier = -1;
+
+    @Before
+    public void setUp() {
+        GuillotineTestScreen screen = new GuillotineTestScreen();
+        mAnimation = screen.builder()
+                .setOpeningDuration(400)
+                .setClosingDuration(400)
+                .setInterpolator(new OvershootInterpolator(4f))
+                .addProgressListener(new GuillotineProgressListener() {
+                    @Override
+                    public void onGuillotineProgress(float progress, float rotation) {
+                        mMinProgress = Math.min(mMinProgress, progress);
+                        mMaxProgress = Math.max(mMaxProgress, progress);
+                    }
+                })
+                //  A negative limit steps down after every measured animation
+                .setAdaptiveQuality(new QualityTierSelector(1, -1f), new GuillotineQualityListener() {
+                    @Override
+                    public void onGuillotineQualityTierChanged(int tier) {
+                        mChangedTier = tier;
+                    }
+                })
+                .build();
+        runFor(0);
+    }
+
+    @Test
+    public void simpleRotationDropsTheConfiguredInterpolator() {
+        mAnimation.open();
+        runFor(1000);
+        assertTrue(mMaxProgress > 1f);
+        assertEquals(QualityTierSelector.TIER_SIMPLE_ROTATION, mChangedTier);
+
+        //  An overshooting close would go past the closed angle
+        mAnimation.close();
+        runFor(1000);
+        assertEquals(0f, mMinProgress, 0f);
+        assertEquals(QualityTierSelector.TIER_CROSS_FADE, mChangedTier);
+    }
+}
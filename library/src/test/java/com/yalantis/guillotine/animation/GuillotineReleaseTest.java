@@ -0,0 +1,68 @@
+package com.yalantis.guillotine.animation;
+
+import android.app.Activity;
+
+import com.yalantis.guillotine.interfaces.GuillotineMetricsListener;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.lang.ref.WeakReference;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Robolectric itself keeps every activity it created reachable (the window stays in WindowManagerGlobal and
+ * its accessibility service stays registered with the application), so the destroyed activity can not be
+ * asserted collectable here. The guillotine is: its screen is still reachable, so nothing on it, nor the
+ * coordinator, the lifecycle callbacks, the looper or the choreographer, points back at the guillotine.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineReleaseTest {
+    private static final int MAX_GC_RUNS = 20;
+
+    @Test
+    public void guillotineOfADestroyedActivityIsCollectable() throws InterruptedException {
+        WeakReference<GuillotineAnimation> animation = openAndDestroy();
+        assertEquals(0, GuillotineCoordinator.getDefault().getRegisteredCount());
+        for (int i = 0; i < MAX_GC_RUNS && animation.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(animation.get());
+    }
+
+    /**
+     * The only strong references to the guillotine are in this frame, so once it returns only the library
+     * can keep the guillotine reachable.
+     */
+    private static WeakReference<GuillotineAnimation> openAndDestroy() {
+        ActivityController<Activity> controller = Robolectric.buildActivity(Activity.class).setup();
+        GuillotineTestScreen screen = new GuillotineTestScreen(controller.get());
+        GuillotineAnimation animation = screen.builder()
+                .setCoordinator(GuillotineCoordinator.getDefault())
+                //  Brings in the frame callbacks of the metrics recorder
+                .setMetricsListener(new GuillotineMetricsListener() {
+                    @Override
+                    public void onGuillotineMetrics(GuillotineMetrics metrics) {
+                    }
+                })
+                .setReleaseOnDestroy(screen.activity)
+                .build();
+        animation.prewarm();
+        animation.open();
+        runFor(1000);
+        //  Destroyed while a close request is still pending
+        animation.close();
+        controller.pause().stop().destroy();
+        runFor(1000);
+        return new WeakReference<>(animation);
+    }
+}
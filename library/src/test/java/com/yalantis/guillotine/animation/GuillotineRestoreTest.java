@@ -0,0 +1,106 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineRestoreTest {
+    /**
+     * Records what the guillotine looks like when it is laid out for the first time.
+     */
+    private static class FirstLayoutRecorder implements ViewTreeObserver.OnGlobalLayoutListener {
+        private final View mView;
+        boolean isLaidOut;
+        float mRotation;
+        int mVisibility;
+        float mPivotX;
+        float mPivotY;
+
+        FirstLayoutRecorder(View view) {
+            mView = view;
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            if (isLaidOut) return;
+            isLaidOut = true;
+            mRotation = mView.getRotation();
+            mVisibility = mView.getVisibility();
+            mPivotX = mView.getPivotX();
+            mPivotY = mView.getPivotY();
+        }
+    }
+
+    private GuillotineTestScreen mScreen;
+    private GuillotineTestScreen.CountingListener mListener;
+    private GuillotineAnimation mAnimation;
+    private int mProgressCount;
+    private float mLastProgress;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mListener = new GuillotineTestScreen.CountingListener();
+        mAnimation = mScreen.builder()
+                .setGuillotineListener(mListener)
+                .build();
+        mAnimation.addProgressListener(new GuillotineProgressListener() {
+            @Override
+            public void onGuillotineProgress(float progress, float rotation) {
+                mProgressCount++;
+                mLastProgress = progress;
+            }
+        });
+    }
+
+    @Test
+    public void restoredGuillotineIsOpenedAtFirstLayoutWithoutAnimating() {
+        int actionBarMeasureCount = mScreen.actionBar.mMeasureCount;
+        int actionBarLayoutCount = mScreen.actionBar.mLayoutCount;
+
+        mAnimation.onRestoreInstanceState(new GuillotineAnimation.SavedState(true));
+        //  The jump is reported once, at the resting value, before any frame
+        assertEquals(1, mProgressCount);
+        assertEquals(1f, mLastProgress, 0f);
+        assertEquals(0, mListener.mWillOpenCount);
+        assertEquals(1, mListener.mOpenedCount);
+        assertFalse(mAnimation.isClosed());
+
+        GuillotineTestScreen.CountingFrameLayout guillotineView = mScreen.guillotineView;
+        assertFalse(guillotineView.isLaidOut());
+        FirstLayoutRecorder recorder = new FirstLayoutRecorder(guillotineView);
+        guillotineView.getViewTreeObserver().addOnGlobalLayoutListener(recorder);
+        runFor(1000);
+
+        assertTrue(recorder.isLaidOut);
+        assertEquals(0f, recorder.mRotation, 0f);
+        assertEquals(View.VISIBLE, recorder.mVisibility);
+        assertEquals(BAR_HEIGHT / 2, recorder.mPivotX, 0f);
+        assertEquals(BAR_HEIGHT / 2, recorder.mPivotY, 0f);
+
+        //  No animator ran once frames were let through
+        assertEquals(1, mProgressCount);
+        assertEquals(1, guillotineView.mMeasureCount);
+        assertEquals(1, guillotineView.mLayoutCount);
+        assertEquals(actionBarMeasureCount, mScreen.actionBar.mMeasureCount);
+        assertEquals(actionBarLayoutCount, mScreen.actionBar.mLayoutCount);
+        assertEquals(View.INVISIBLE, mScreen.actionBar.getVisibility());
+        assertNull(mAnimation.getTitleDrawable());
+    }
+}
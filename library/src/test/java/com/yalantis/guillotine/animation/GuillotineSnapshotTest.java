@@ -0,0 +1,207 @@
+package com.yalantis.guillotine.animation;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.view.MotionEvent;
+import android.view.ViewGroup;
+
+import com.yalantis.guillotine.util.BitmapPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineSnapshotTest {
+
+    /**
+     * Keeps track of the bitmap handed out.
+     */
+    private static class TrackingPool extends BitmapPool {
+        Bitmap mAcquired;
+        int mOutstandingCount;
+
+        TrackingPool() {
+            super(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+            mOutstandingCount++;
+            return mAcquired = super.acquire(width, height, config);
+        }
+
+        @Override
+        public synchronized void release(Bitmap bitmap) {
+            if (bitmap != null) {
+                mOutstandingCount--;
+            }
+            super.release(bitmap);
+        }
+    }
+
+    private GuillotineTestScreen mScreen;
+    private TrackingPool mPool;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mPool = new TrackingPool();
+    }
+
+    @Test
+    public void bitmapIsKeptBetweenAnimations() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        assertEquals(1, mPool.mOutstandingCount);
+        assertEquals(1, mScreen.guillotineView.mDrawCount);
+
+        animation.open();
+        runFor(1000);
+        assertFalse(animation.isClosed());
+        assertEquals(1, mPool.mOutstandingCount);
+
+        animation.close();
+        runFor(1000);
+        assertTrue(animation.isClosed());
+        assertEquals(1, mPool.mOutstandingCount);
+        assertEquals(1, mScreen.guillotineView.mDrawCount);
+    }
+
+    @Test
+    public void newLayoutRedrawsTheSnapshot() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        animation.open();
+        runFor(1000);
+
+        mScreen.guillotineView.requestLayout();
+        runFor(0);
+        animation.close();
+        runFor(1000);
+        assertEquals(2, mScreen.guillotineView.mDrawCount);
+    }
+
+    @Test
+    public void invalidatedSnapshotIsRedrawn() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        animation.invalidateSnapshot();
+        animation.open();
+        runFor(1000);
+        assertEquals(2, mScreen.guillotineView.mDrawCount);
+    }
+
+    @Test
+    public void memoryTrimReturnsTheBitmapAtRest() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        animation.open();
+        runFor(1000);
+
+        RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        assertEquals(1, mPool.mOutstandingCount);
+        RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertEquals(0, mPool.mOutstandingCount);
+
+        animation.close();
+        runFor(1000);
+        assertTrue(animation.isClosed());
+        assertEquals(2, mScreen.guillotineView.mDrawCount);
+    }
+
+    @Test
+    public void nextAnimationReusesThePooledBitmap() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        Bitmap first = mPool.mAcquired;
+        animation.open();
+        runFor(1000);
+
+        animation.close();
+        runFor(1000);
+        assertSame(first, mPool.mAcquired);
+    }
+
+    @Test
+    public void detachedDraggedGuillotineSettlesAndReturnsTheBitmap() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        long downTime = now();
+        mScreen.actionBar.dispatchTouchEvent(obtainEvent(downTime, downTime, MotionEvent.ACTION_DOWN, 100, 20));
+        mScreen.actionBar.dispatchTouchEvent(obtainEvent(downTime, downTime + 10, MotionEvent.ACTION_MOVE, 100, 40));
+        mScreen.actionBar.dispatchTouchEvent(obtainEvent(downTime, downTime + 20, MotionEvent.ACTION_MOVE, 100, 50));
+        assertTrue(animation.getRotation() > -90f && animation.getRotation() < -45f);
+
+        ((ViewGroup) mScreen.root.getParent()).removeView(mScreen.root);
+        assertTrue(animation.isClosed());
+        assertEquals(-90f, animation.getRotation(), 0f);
+        assertEquals(0, mPool.mOutstandingCount);
+    }
+
+    @Test
+    public void detachedGuillotineAppliesThePendingRequest() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        animation.open();
+        ((ViewGroup) mScreen.root.getParent()).removeView(mScreen.root);
+        assertFalse(animation.isClosed());
+        assertEquals(0, mPool.mOutstandingCount);
+
+        runFor(1000);
+        assertFalse(animation.isClosed());
+        assertEquals(0, mPool.mOutstandingCount);
+    }
+
+    @Test
+    public void detachedPrewarmedGuillotineReturnsTheBitmap() {
+        GuillotineAnimation animation = builder().build();
+        animation.prewarm();
+        ((ViewGroup) mScreen.root.getParent()).removeView(mScreen.root);
+        assertEquals(0, mPool.mOutstandingCount);
+    }
+
+    @Test
+    public void snapshotIsScaledAndConfigured() {
+        GuillotineAnimation animation = builder()
+                .setSnapshotScale(0.5f)
+                .setSnapshotConfig(Bitmap.Config.RGB_565)
+                .build();
+        animation.prewarm();
+
+        Bitmap bitmap = mPool.mAcquired;
+        assertNotNull(bitmap);
+        assertEquals(mScreen.root.getWidth() / 2, bitmap.getWidth());
+        assertEquals(mScreen.root.getHeight() / 2, bitmap.getHeight());
+        assertEquals(Bitmap.Config.RGB_565, bitmap.getConfig());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnUpscale() {
+        mScreen.builder().setSnapshotScale(2f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAConfigThePoolCannotSize() {
+        mScreen.builder().setSnapshotConfig(Bitmap.Config.ALPHA_8);
+    }
+
+    private GuillotineAnimation.GuillotineBuilder builder() {
+        return mScreen.builder()
+                .setRenderMode(GuillotineAnimation.RENDER_MODE_SNAPSHOT)
+                .setBitmapPool(mPool);
+    }
+}
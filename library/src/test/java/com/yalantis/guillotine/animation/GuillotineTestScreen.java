@@ -0,0 +1,157 @@
+package com.yalantis.guillotine.animation;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.yalantis.guillotine.interfaces.GuillotineListener;
+import com.yalantis.guillotine.interfaces.GuillotineViewFactory;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A screen with an action bar and a guillotine that is only created when it is needed, like the sample.
+ */
+final class GuillotineTestScreen {
+    static final int BAR_HEIGHT = 56;
+    static final int CLOSING_VIEW_ID = 1;
+
+    final Activity activity;
+    final FrameLayout root;
+    final CountingFrameLayout actionBar;
+    final View openingView;
+    CountingFrameLayout guillotineView;
+    View closingView;
+
+    GuillotineTestScreen() {
+        this(Robolectric.setupActivity(Activity.class));
+    }
+
+    GuillotineTestScreen(Activity activity) {
+        this.activity = activity;
+        root = new FrameLayout(activity);
+        actionBar = new CountingFrameLayout(activity);
+        openingView = new View(activity);
+        actionBar.addView(openingView, new FrameLayout.LayoutParams(BAR_HEIGHT, BAR_HEIGHT));
+        root.addView(actionBar, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, BAR_HEIGHT));
+        activity.setContentView(root);
+        runFor(0);
+        //  From here on layout passes and frames only run when the test lets time pass, like on a device
+        ShadowLooper.pauseMainLooper();
+    }
+
+    GuillotineAnimation.GuillotineBuilder builder() {
+        return new GuillotineAnimation.GuillotineBuilder(new GuillotineViewFactory() {
+            @Override
+            public View createGuillotineView() {
+                guillotineView = new CountingFrameLayout(activity);
+                closingView = new View(activity);
+                closingView.setId(CLOSING_VIEW_ID);
+                guillotineView.addView(closingView, new FrameLayout.LayoutParams(BAR_HEIGHT, BAR_HEIGHT));
+                root.addView(guillotineView, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                return guillotineView;
+            }
+        }, CLOSING_VIEW_ID, openingView).setActionBarViewForAnimation(actionBar);
+    }
+
+    /**
+     * Runs the main looper, and the animation frames on it, for the given time.
+     * Robolectric advances a frame clock of its own on every frame, so animations finish right away
+     * but an animator start delay, which is measured on the uptime clock, never elapses: only the test
+     * for the taps, which skip it, sets one.
+     */
+    static void runFor(long millis) {
+        ShadowLooper.idleMainLooper(millis, TimeUnit.MILLISECONDS);
+    }
+
+    static MotionEvent obtainEvent(long downTime, long eventTime, int action, float x, float y) {
+        return MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+    }
+
+    static long now() {
+        return SystemClock.uptimeMillis();
+    }
+
+    /**
+     * Counts the measure, layout and draw passes it goes through.
+     */
+    static class CountingFrameLayout extends FrameLayout {
+        int mMeasureCount;
+        int mLayoutCount;
+        int mDrawCount;
+        //  Robolectric's render node ignores layer types, so the requested one is kept here
+        private int mLayerType = LAYER_TYPE_NONE;
+
+        CountingFrameLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setLayerType(int layerType, Paint paint) {
+            mLayerType = layerType;
+            super.setLayerType(layerType, paint);
+        }
+
+        @Override
+        public int getLayerType() {
+            return mLayerType;
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            mLayoutCount++;
+            super.onLayout(changed, left, top, right, bottom);
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            mDrawCount++;
+            super.draw(canvas);
+        }
+    }
+
+    /**
+     * Counts the guillotine callbacks.
+     */
+    static class CountingListener implements GuillotineListener {
+        int mWillOpenCount;
+        int mWillCloseCount;
+        int mOpenedCount;
+        int mClosedCount;
+
+        @Override
+        public void onGuillotineWillOpen() {
+            mWillOpenCount++;
+        }
+
+        @Override
+        public void onGuillotineWillClose() {
+            mWillCloseCount++;
+        }
+
+        @Override
+        public void onGuillotineOpened() {
+            mOpenedCount++;
+        }
+
+        @Override
+        public void onGuillotineClosed() {
+            mClosedCount++;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.yalantis.guillotine.animation;
+
+import android.graphics.PointF;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineTitleTest {
+    private GuillotineTestScreen mScreen;
+    private TextView mTitle;
+    private long mDownTime;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mTitle = new TextView(mScreen.activity);
+        mTitle.setText("Activity");
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(3 * BAR_HEIGHT, BAR_HEIGHT);
+        params.leftMargin = BAR_HEIGHT;
+        mScreen.actionBar.addView(mTitle, params);
+        runFor(0);
+    }
+
+    @Test
+    public void titleFollowsTheDraggedGuillotine() {
+        GuillotineAnimation animation = mScreen.builder().build();
+        dragDown(50);
+        TitleDrawable title = animation.getTitleDrawable();
+        assertNotNull(title);
+        float progress = (animation.getRotation() + 90f) / 90f;
+        assertEquals(Math.round(255 * (1 - progress)), title.getAlpha());
+
+        dragDown(110);
+        float nextProgress = (animation.getRotation() + 90f) / 90f;
+        assertEquals(Math.round(255 * (1 - nextProgress)), title.getAlpha());
+    }
+
+    @Test
+    public void titleTurnsWithTheGuillotineFromTheActionBarTitle() {
+        GuillotineAnimation animation = mScreen.builder().build();
+        dragDown(50);
+        assertTitleCenter(animation);
+
+        dragDown(110);
+        assertTitleCenter(animation);
+    }
+
+    @Test
+    public void openingAndClosingDoNotLayOutTheActionBar() {
+        GuillotineAnimation animation = mScreen.builder().build();
+        animation.prewarm();
+        runFor(0);
+        int measureCount = mScreen.actionBar.mMeasureCount;
+        int layoutCount = mScreen.actionBar.mLayoutCount;
+
+        animation.open();
+        runFor(1000);
+        animation.close();
+        runFor(1000);
+        assertTrue(animation.isClosed());
+        assertEquals(0, mScreen.actionBar.mMeasureCount - measureCount);
+        assertEquals(0, mScreen.actionBar.mLayoutCount - layoutCount);
+    }
+
+    @Test
+    public void titleIsRemovedAtRest() {
+        GuillotineAnimation animation = mScreen.builder().build();
+        dragDown(50);
+        release();
+        runFor(1000);
+        assertNull(animation.getTitleDrawable());
+    }
+
+    @Test
+    public void viewPropertyAnimatorModeDoesNotShowTheTitle() {
+        GuillotineAnimation animation = mScreen.builder()
+                .setRenderMode(GuillotineAnimation.RENDER_MODE_VIEW_PROPERTY_ANIMATOR)
+                .build();
+        dragDown(50);
+        assertNull(animation.getTitleDrawable());
+    }
+
+    /**
+     * The title center on the guillotine is the action bar title center, carried from the closed angle
+     * to the current one around the guillotine pivot.
+     */
+    private void assertTitleCenter(GuillotineAnimation animation) {
+        View guillotineView = animation.getGuillotineView();
+        float pivotX = guillotineView.getLeft() + guillotineView.getPivotX();
+        float pivotY = guillotineView.getTop() + guillotineView.getPivotY();
+        float x = mScreen.actionBar.getLeft() + mTitle.getLeft() + mTitle.getWidth() / 2f - pivotX;
+        float y = mScreen.actionBar.getTop() + mTitle.getTop() + mTitle.getHeight() / 2f - pivotY;
+        double radians = Math.toRadians(animation.getRotation() + 90f);
+
+        PointF title = animation.getTitleDrawable().getCenterInParent();
+        assertEquals(pivotX + x * Math.cos(radians) - y * Math.sin(radians), title.x, 0.01f);
+        assertEquals(pivotY + x * Math.sin(radians) + y * Math.cos(radians), title.y, 0.01f);
+    }
+
+    private void dragDown(float distance) {
+        if (mDownTime == 0) {
+            mDownTime = now();
+            dispatch(MotionEvent.ACTION_DOWN, 0);
+        }
+        dispatch(MotionEvent.ACTION_MOVE, distance);
+    }
+
+    private void release() {
+        dispatch(MotionEvent.ACTION_CANCEL, 0);
+    }
+
+    private void dispatch(int action, float distance) {
+        MotionEvent event = obtainEvent(mDownTime, now(), action, 300, BAR_HEIGHT / 2f + distance);
+        mScreen.actionBar.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
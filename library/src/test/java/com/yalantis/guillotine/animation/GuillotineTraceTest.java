@@ -0,0 +1,99 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.MotionEvent;
+
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+import com.yalantis.guillotine.util.GuillotineTrace;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.BAR_HEIGHT;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.now;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.obtainEvent;
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineTraceTest {
+    private GuillotineTestScreen mScreen;
+    private GuillotineAnimation mAnimation;
+    private int mMaxOpenSectionCount;
+    private float mReverseAtProgress = -1;
+
+    @Before
+    public void setUp() {
+        GuillotineTrace.setEnabled(true);
+        mScreen = new GuillotineTestScreen();
+        mAnimation = mScreen.builder()
+                .addProgressListener(new GuillotineProgressListener() {
+                    @Override
+                    public void onGuillotineProgress(float progress, float rotation) {
+                        mMaxOpenSectionCount = Math.max(mMaxOpenSectionCount, GuillotineTrace.getOpenSectionCount());
+                        if (mReverseAtProgress >= 0 && progress >= mReverseAtProgress) {
+                            mReverseAtProgress = -1;
+                            mAnimation.close();
+                        }
+                    }
+                })
+                .build();
+        runFor(0);
+        assertEquals(0, GuillotineTrace.getOpenSectionCount());
+    }
+
+    @After
+    public void tearDown() {
+        GuillotineTrace.setEnabled(false);
+    }
+
+    @Test
+    public void openAndCloseLeaveNoSectionOpen() {
+        mAnimation.open();
+        runFor(1000);
+        assertEquals(0, GuillotineTrace.getOpenSectionCount());
+
+        mAnimation.close();
+        runFor(1000);
+        assertEquals(0, GuillotineTrace.getOpenSectionCount());
+        //  Frames are reported from inside the frame section
+        assertTrue(mMaxOpenSectionCount > 0);
+    }
+
+    @Test
+    public void reverseLeavesNoSectionOpen() {
+        mReverseAtProgress = 0.5f;
+        mAnimation.open();
+        runFor(1000);
+        assertTrue(mAnimation.isClosed());
+        assertEquals(0, GuillotineTrace.getOpenSectionCount());
+    }
+
+    @Test
+    public void cancelledDragLeavesNoSectionOpen() {
+        long downTime = now();
+        dispatch(downTime, 0, MotionEvent.ACTION_DOWN, 0);
+        dispatch(downTime, 10, MotionEvent.ACTION_MOVE, 20);
+        dispatch(downTime, 20, MotionEvent.ACTION_MOVE, 60);
+        assertEquals(0, GuillotineTrace.getOpenSectionCount());
+
+        dispatch(downTime, 30, MotionEvent.ACTION_CANCEL, 60);
+        runFor(1000);
+        assertEquals(0, GuillotineTrace.getOpenSectionCount());
+        assertTrue(mMaxOpenSectionCount > 0);
+    }
+
+    private void dispatch(long downTime, long time, int action, float distance) {
+        MotionEvent event = obtainEvent(downTime, downTime + time, action, 200, BAR_HEIGHT / 2f + distance);
+        try {
+            mScreen.actionBar.dispatchTouchEvent(event);
+        } finally {
+            event.recycle();
+        }
+    }
+}
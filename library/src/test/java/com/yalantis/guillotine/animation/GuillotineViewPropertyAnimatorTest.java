@@ -0,0 +1,85 @@
+package com.yalantis.guillotine.animation;
+
+import android.view.View;
+
+import com.yalantis.guillotine.interfaces.GuillotineProgressListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.yalantis.guillotine.animation.GuillotineTestScreen.runFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class GuillotineViewPropertyAnimatorTest {
+    private GuillotineTestScreen mScreen;
+    private GuillotineTestScreen.CountingListener mListener;
+
+    @Before
+    public void setUp() {
+        mScreen = new GuillotineTestScreen();
+        mListener = new GuillotineTestScreen.CountingListener();
+    }
+
+    @Test
+    public void opensAndClosesWithoutAnimatorListeners() {
+        GuillotineAnimation animation = build().build();
+
+        animation.open();
+        runFor(1000);
+        assertFalse(animation.isClosed());
+        assertEquals(0f, animation.getRotation(), 0f);
+        assertEquals(View.INVISIBLE, mScreen.actionBar.getVisibility());
+        assertEquals(1, mListener.mOpenedCount);
+
+        animation.close();
+        runFor(1000);
+        assertTrue(animation.isClosed());
+        assertEquals(-90f, animation.getRotation(), 0f);
+        assertEquals(View.GONE, mScreen.guillotineView.getVisibility());
+        assertEquals(1, mListener.mClosedCount);
+    }
+
+    @Test
+    public void reversalOnlyFinishesTheLastDirection() {
+        GuillotineAnimation animation = build().build();
+
+        animation.open();
+        runFor(150);
+        animation.close();
+        runFor(1000);
+        assertTrue(animation.isClosed());
+        assertEquals(0, mListener.mOpenedCount);
+        assertEquals(1, mListener.mClosedCount);
+    }
+
+    @Test
+    public void progressListenersStillGetEveryFrame() {
+        final int[] frameCount = new int[1];
+        final float[] lastProgress = new float[1];
+        GuillotineAnimation animation = build().addProgressListener(new GuillotineProgressListener() {
+            @Override
+            public void onGuillotineProgress(float progress, float rotation) {
+                frameCount[0]++;
+                lastProgress[0] = progress;
+            }
+        }).build();
+
+        animation.open();
+        runFor(1000);
+        assertTrue(frameCount[0] > 2);
+        assertEquals(1f, lastProgress[0], 0f);
+    }
+
+    private GuillotineAnimation.GuillotineBuilder build() {
+        return mScreen.builder()
+                .setRenderMode(GuillotineAnimation.RENDER_MODE_VIEW_PROPERTY_ANIMATOR)
+                .setGuillotineListener(mListener);
+    }
+}
@@ -0,0 +1,69 @@
+package com.yalantis.guillotine.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GravitySimulationTest {
+    private static final float FRAME = 1f / 60f;
+    private static final int MAX_FRAMES = 600;
+
+    @Test
+    public void comesToRestAtTheTarget() {
+        GravitySimulation simulation = new GravitySimulation();
+        simulation.start(-90f, 0f, 0f);
+        assertTrue(SpringSimulationTest.runUntilRest(simulation) < MAX_FRAMES);
+        assertEquals(0f, simulation.getPosition(), 0f);
+        assertEquals(0f, simulation.getVelocity(), 0f);
+    }
+
+    @Test
+    public void bouncesBackFromTheTarget() {
+        GravitySimulation simulation = new GravitySimulation(GravitySimulation.DEFAULT_GRAVITY, 0.5f);
+        simulation.start(-90f, 0f, 0f);
+        boolean hasBounced = false;
+        for (int i = 0; i < MAX_FRAMES && !simulation.advance(FRAME); i++) {
+            //  Never passes the target, it moves away from it after the hit
+            assertTrue(simulation.getPosition() <= 0f);
+            hasBounced |= simulation.getVelocity() < 0f;
+        }
+        assertTrue(hasBounced);
+    }
+
+    @Test
+    public void bounceKeepsTheRestitutionShareOfTheVelocity() {
+        GravitySimulation simulation = new GravitySimulation(GravitySimulation.DEFAULT_GRAVITY, 0.5f);
+        simulation.start(-1f, 1000f, 0f);
+        float velocityBefore = simulation.getVelocity();
+        simulation.advance(PhysicsSimulation.FIXED_TIME_STEP);
+        assertEquals(0f, simulation.getPosition(), 0f);
+        float expected = -(velocityBefore + GravitySimulation.DEFAULT_GRAVITY * PhysicsSimulation.FIXED_TIME_STEP) * 0.5f;
+        assertEquals(expected, simulation.getVelocity(), 1e-3f);
+    }
+
+    @Test
+    public void noRestitutionStopsOnArrival() {
+        GravitySimulation simulation = new GravitySimulation(GravitySimulation.DEFAULT_GRAVITY, 0f);
+        simulation.start(-90f, 0f, 0f);
+        for (int i = 0; i < MAX_FRAMES && !simulation.advance(FRAME); i++) {
+            assertTrue(simulation.getVelocity() >= 0f);
+        }
+        assertEquals(0f, simulation.getPosition(), 0f);
+    }
+
+    @Test
+    public void fallsTowardsATargetBelow() {
+        GravitySimulation simulation = new GravitySimulation();
+        simulation.start(0f, 0f, -90f);
+        simulation.advance(FRAME);
+        assertTrue(simulation.getPosition() < 0f);
+        assertTrue(SpringSimulationTest.runUntilRest(simulation) < MAX_FRAMES);
+        assertEquals(-90f, simulation.getPosition(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFullRestitution() {
+        new GravitySimulation(GravitySimulation.DEFAULT_GRAVITY, 1f);
+    }
+}
@@ -0,0 +1,107 @@
+package com.yalantis.guillotine.util;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Timed harness for the per-frame interpolation cost: the raw guillotine curve, its lookup table and
+ * a cubic bezier solved on every call, the way a {@code PathInterpolator} or {@code FastOutSlowInInterpolator}
+ * style curve costs. Prints nanoseconds per call; the only assertion is that the lookup table stays cheaper
+ * than solving a curve, so that wrapping an expensive interpolator keeps paying off.
+ */
+public class InterpolatorBenchmarkTest {
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int CALLS_PER_ROUND = 1000000;
+
+    /**
+     * Cubic bezier from (0, 0) to (1, 1), x solved for t with Newton's method on every call.
+     */
+    private static class CubicBezierInterpolator implements TimeInterpolator {
+        private static final int NEWTON_ITERATIONS = 8;
+        private static final float EPSILON = 1e-6f;
+
+        private final float mX1;
+        private final float mY1;
+        private final float mX2;
+        private final float mY2;
+
+        CubicBezierInterpolator(float x1, float y1, float x2, float y2) {
+            this.mX1 = x1;
+            this.mY1 = y1;
+            this.mX2 = x2;
+            this.mY2 = y2;
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            float t = input;
+            for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+                float error = bezier(t, mX1, mX2) - input;
+                if (Math.abs(error) < EPSILON) break;
+                float slope = bezierSlope(t, mX1, mX2);
+                if (slope == 0) break;
+                t -= error / slope;
+            }
+            return bezier(t, mY1, mY2);
+        }
+
+        private static float bezier(float t, float p1, float p2) {
+            float u = 1 - t;
+            return 3 * u * u * t * p1 + 3 * u * t * t * p2 + t * t * t;
+        }
+
+        private static float bezierSlope(float t, float p1, float p2) {
+            float u = 1 - t;
+            return 3 * u * u * p1 + 6 * u * t * (p2 - p1) + 3 * t * t * (1 - p2);
+        }
+    }
+
+    private float mSink;
+
+    @Test
+    public void lookupTableIsCheaperThanSolvingACurve() {
+        TimeInterpolator raw = new GuillotineInterpolator();
+        TimeInterpolator rawTable = new LookupTableInterpolator(raw);
+        TimeInterpolator bezier = new CubicBezierInterpolator(0.4f, 0f, 0.2f, 1f);
+        TimeInterpolator bezierTable = new LookupTableInterpolator(bezier);
+
+        long rawNanos = measure("guillotine, raw", raw);
+        measure("guillotine, lookup table", rawTable);
+        long bezierNanos = measure("cubic bezier, raw", bezier);
+        long bezierTableNanos = measure("cubic bezier, lookup table", bezierTable);
+
+        assertTrue(bezierTableNanos < bezierNanos);
+        //  Keeps the results alive, so that the calls are not optimized away
+        assertTrue(rawNanos > 0 && !Float.isNaN(mSink));
+    }
+
+    /**
+     * @return the best round, in nanoseconds for all of its calls
+     */
+    private long measure(String name, TimeInterpolator interpolator) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            runRound(interpolator);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            best = Math.min(best, runRound(interpolator));
+        }
+        System.out.println(String.format("%s: %.2f ns per call", name, (double) best / CALLS_PER_ROUND));
+        return best;
+    }
+
+    private long runRound(TimeInterpolator interpolator) {
+        float sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS_PER_ROUND; i++) {
+            sum += interpolator.getInterpolation((float) i / CALLS_PER_ROUND);
+        }
+        long elapsed = System.nanoTime() - start;
+        mSink += sum;
+        return elapsed;
+    }
+}
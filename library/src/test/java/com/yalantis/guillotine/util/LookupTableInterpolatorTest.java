@@ -0,0 +1,74 @@
+package com.yalantis.guillotine.util;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LookupTableInterpolatorTest {
+    private static final int CHECKED_POINTS = 100000;
+    //  the guillotine curve has kinks where the bounces start, so the chord between the two
+    //  samples around a kink is the worst case; elsewhere the table is far more precise
+    private static final float MAX_ERROR = 1e-2f;
+    private static final float MAX_SMOOTH_ERROR = 1e-4f;
+
+    @Test
+    public void staysCloseToTheGuillotineInterpolator() {
+        TimeInterpolator interpolator = new GuillotineInterpolator();
+        LookupTableInterpolator lookupTable = new LookupTableInterpolator(interpolator);
+        float maxError = 0;
+        for (int i = 0; i <= CHECKED_POINTS; i++) {
+            float t = (float) i / CHECKED_POINTS;
+            maxError = Math.max(maxError, Math.abs(lookupTable.getInterpolation(t) - interpolator.getInterpolation(t)));
+        }
+        assertEquals(0f, maxError, MAX_ERROR);
+    }
+
+    @Test
+    public void isPreciseWithinTheRotationPhase() {
+        TimeInterpolator interpolator = new GuillotineInterpolator();
+        LookupTableInterpolator lookupTable = new LookupTableInterpolator(interpolator);
+        float maxError = 0;
+        for (int i = 0; i <= CHECKED_POINTS; i++) {
+            float t = 0.46f * i / CHECKED_POINTS;
+            maxError = Math.max(maxError, Math.abs(lookupTable.getInterpolation(t) - interpolator.getInterpolation(t)));
+        }
+        assertEquals(0f, maxError, MAX_SMOOTH_ERROR);
+    }
+
+    @Test
+    public void matchesTheEndsExactly() {
+        TimeInterpolator interpolator = new GuillotineInterpolator();
+        LookupTableInterpolator lookupTable = new LookupTableInterpolator(interpolator);
+        assertEquals(interpolator.getInterpolation(0f), lookupTable.getInterpolation(0f), 0f);
+        assertEquals(interpolator.getInterpolation(1f), lookupTable.getInterpolation(1f), 0f);
+        assertEquals(interpolator.getInterpolation(0f), lookupTable.getInterpolation(-0.5f), 0f);
+        assertEquals(interpolator.getInterpolation(1f), lookupTable.getInterpolation(1.5f), 0f);
+    }
+
+    @Test
+    public void isExactForALinearCurveWithTwoSamples() {
+        LookupTableInterpolator lookupTable = new LookupTableInterpolator(new TimeInterpolator() {
+            @Override
+            public float getInterpolation(float input) {
+                return input;
+            }
+        }, 2);
+        for (int i = 0; i <= 10; i++) {
+            assertEquals(i / 10f, lookupTable.getInterpolation(i / 10f), 1e-6f);
+        }
+    }
+
+    @Test
+    public void doesNotWrapTwice() {
+        TimeInterpolator lookupTable = LookupTableInterpolator.wrap(new GuillotineInterpolator());
+        assertSame(lookupTable, LookupTableInterpolator.wrap(lookupTable));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsASingleSample() {
+        new LookupTableInterpolator(new GuillotineInterpolator(), 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.yalantis.guillotine.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PhysicsSimulationTest {
+
+    /**
+     * Moves at a constant speed and counts its steps.
+     */
+    private static class LinearSimulation extends PhysicsSimulation {
+        int mStepCount;
+
+        @Override
+        protected void step(float dt) {
+            mStepCount++;
+            mPosition += mVelocity * dt;
+        }
+
+        @Override
+        protected boolean isAtRest() {
+            return mPosition >= mTarget;
+        }
+    }
+
+    @Test
+    public void advancesInFixedSteps() {
+        LinearSimulation simulation = new LinearSimulation();
+        simulation.start(0f, 1f, 100f);
+        simulation.advance(PhysicsSimulation.FIXED_TIME_STEP * 0.5f);
+        assertEquals(0, simulation.mStepCount);
+        simulation.advance(PhysicsSimulation.FIXED_TIME_STEP * 0.6f);
+        assertEquals(1, simulation.mStepCount);
+        simulation.advance(PhysicsSimulation.FIXED_TIME_STEP * 3f);
+        assertEquals(4, simulation.mStepCount);
+    }
+
+    @Test
+    public void clampsLongStalls() {
+        LinearSimulation simulation = new LinearSimulation();
+        simulation.start(0f, 1f, 100f);
+        simulation.advance(10f);
+        assertEquals(0.1f, simulation.getPosition(), 2 * PhysicsSimulation.FIXED_TIME_STEP);
+        simulation.advance(-1f);
+        assertEquals(0.1f, simulation.getPosition(), 2 * PhysicsSimulation.FIXED_TIME_STEP);
+    }
+
+    @Test
+    public void snapsToTheTargetAtRest() {
+        LinearSimulation simulation = new LinearSimulation();
+        simulation.start(0f, 100f, 1f);
+        assertFalse(simulation.advance(0.005f));
+        assertTrue(simulation.advance(0.01f));
+        assertEquals(1f, simulation.getPosition(), 0f);
+        assertEquals(0f, simulation.getVelocity(), 0f);
+    }
+
+    @Test
+    public void restartClearsTheAccumulatedTime() {
+        LinearSimulation simulation = new LinearSimulation();
+        simulation.start(0f, 1f, 100f);
+        simulation.advance(PhysicsSimulation.FIXED_TIME_STEP * 0.9f);
+        simulation.start(0f, 1f, 100f);
+        simulation.advance(PhysicsSimulation.FIXED_TIME_STEP * 0.2f);
+        assertEquals(0, simulation.mStepCount);
+    }
+}
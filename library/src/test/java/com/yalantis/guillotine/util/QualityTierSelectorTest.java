@@ -0,0 +1,82 @@
+package com.yalantis.guillotine.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class QualityTierSelectorTest {
+
+    @Test
+    public void startsAtTheFullTier() {
+        QualityTierSelector selector = new QualityTierSelector();
+        assertEquals(QualityTierSelector.TIER_FULL, selector.getTier());
+        assertEquals(QualityTierSelector.DEFAULT_WINDOW_SIZE, selector.getWindowSize());
+    }
+
+    @Test
+    public void waitsForAFullWindowBeforeSteppingDown() {
+        QualityTierSelector selector = new QualityTierSelector(3, 0.2f);
+        assertEquals(QualityTierSelector.TIER_FULL, selector.onAnimationMeasured(10, 10));
+        assertEquals(QualityTierSelector.TIER_FULL, selector.onAnimationMeasured(10, 10));
+        assertEquals(QualityTierSelector.TIER_SIMPLE_ROTATION, selector.onAnimationMeasured(10, 10));
+    }
+
+    @Test
+    public void ratioAtTheLimitKeepsTheTier() {
+        QualityTierSelector selector = new QualityTierSelector(1, 0.2f);
+        //  2 of 10 expected frames dropped is exactly the limit, 3 of 10 is above it
+        assertEquals(QualityTierSelector.TIER_FULL, selector.onAnimationMeasured(8, 2));
+        assertEquals(QualityTierSelector.TIER_SIMPLE_ROTATION, selector.onAnimationMeasured(7, 3));
+    }
+
+    @Test
+    public void singleBadAnimationIsAveragedOut() {
+        QualityTierSelector selector = new QualityTierSelector(3, 0.2f);
+        selector.onAnimationMeasured(10, 0);
+        selector.onAnimationMeasured(10, 0);
+        //  (0 + 0 + 0.5) / 3 stays under the limit
+        assertEquals(QualityTierSelector.TIER_FULL, selector.onAnimationMeasured(10, 10));
+    }
+
+    @Test
+    public void windowSlidesOverTheOldestSamples() {
+        QualityTierSelector selector = new QualityTierSelector(3, 0.2f);
+        selector.onAnimationMeasured(10, 0);
+        selector.onAnimationMeasured(10, 10);
+        selector.onAnimationMeasured(10, 0);
+        //  The first good sample is overwritten, (0.5 + 0 + 0.5) / 3 is above the limit
+        assertEquals(QualityTierSelector.TIER_SIMPLE_ROTATION, selector.onAnimationMeasured(10, 10));
+    }
+
+    @Test
+    public void windowStartsOverAfterSteppingDown() {
+        QualityTierSelector selector = new QualityTierSelector(2, 0.2f);
+        selector.onAnimationMeasured(10, 10);
+        assertEquals(QualityTierSelector.TIER_SIMPLE_ROTATION, selector.onAnimationMeasured(10, 10));
+        //  The samples of the previous tier do not count towards the next step
+        assertEquals(QualityTierSelector.TIER_SIMPLE_ROTATION, selector.onAnimationMeasured(10, 10));
+        assertEquals(QualityTierSelector.TIER_CROSS_FADE, selector.onAnimationMeasured(10, 10));
+    }
+
+    @Test
+    public void neverStepsBackUpOrPastTheLastTier() {
+        QualityTierSelector selector = new QualityTierSelector(1, 0.2f);
+        selector.onAnimationMeasured(0, 10);
+        selector.onAnimationMeasured(0, 10);
+        assertEquals(QualityTierSelector.TIER_CROSS_FADE, selector.getTier());
+        assertEquals(QualityTierSelector.TIER_CROSS_FADE, selector.onAnimationMeasured(0, 10));
+        assertEquals(QualityTierSelector.TIER_CROSS_FADE, selector.onAnimationMeasured(60, 0));
+    }
+
+    @Test
+    public void emptyAnimationIsIgnored() {
+        QualityTierSelector selector = new QualityTierSelector(1, 0.2f);
+        assertEquals(QualityTierSelector.TIER_FULL, selector.onAnimationMeasured(0, 0));
+        assertEquals(QualityTierSelector.TIER_FULL, selector.onAnimationMeasured(10, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyWindow() {
+        new QualityTierSelector(0, 0.2f);
+    }
+}
@@ -0,0 +1,68 @@
+package com.yalantis.guillotine.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpringSimulationTest {
+    private static final float FRAME = 1f / 60f;
+    private static final int MAX_FRAMES = 600;
+
+    @Test
+    public void comesToRestAtTheTarget() {
+        SpringSimulation simulation = new SpringSimulation();
+        simulation.start(-90f, 0f, 0f);
+        int frames = runUntilRest(simulation);
+        assertTrue(frames < MAX_FRAMES);
+        assertEquals(0f, simulation.getPosition(), 0f);
+        assertEquals(0f, simulation.getVelocity(), 0f);
+    }
+
+    @Test
+    public void underdampedSpringOvershoots() {
+        SpringSimulation simulation = new SpringSimulation(SpringSimulation.DEFAULT_STIFFNESS, 0.3f);
+        simulation.start(-90f, 0f, 0f);
+        float maxPosition = -90f;
+        for (int i = 0; i < MAX_FRAMES && !simulation.advance(FRAME); i++) {
+            maxPosition = Math.max(maxPosition, simulation.getPosition());
+        }
+        assertTrue("max " + maxPosition, maxPosition > 10f);
+    }
+
+    @Test
+    public void criticallyDampedSpringDoesNotOvershoot() {
+        SpringSimulation simulation = new SpringSimulation(SpringSimulation.DEFAULT_STIFFNESS, 1f);
+        simulation.start(-90f, 0f, 0f);
+        for (int i = 0; i < MAX_FRAMES && !simulation.advance(FRAME); i++) {
+            assertTrue(simulation.getPosition() <= 0f);
+        }
+        assertEquals(0f, simulation.getPosition(), 0f);
+    }
+
+    @Test
+    public void isNotAtRestWhilePassingTheTargetFast() {
+        SpringSimulation simulation = new SpringSimulation();
+        simulation.start(0f, 500f, 0f);
+        assertFalse(simulation.advance(PhysicsSimulation.FIXED_TIME_STEP));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroDamping() {
+        new SpringSimulation(SpringSimulation.DEFAULT_STIFFNESS, 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroStiffness() {
+        new SpringSimulation(0f, SpringSimulation.DEFAULT_DAMPING_RATIO);
+    }
+
+    static int runUntilRest(PhysicsSimulation simulation) {
+        int frames = 0;
+        while (frames < MAX_FRAMES && !simulation.advance(FRAME)) {
+            frames++;
+        }
+        return frames;
+    }
+}